@@ -0,0 +1,110 @@
+package com.gorkha.gorkhajewellery.benchmark;
+
+import com.gorkha.gorkhajewellery.GorkhaJewelleryApplication;
+import com.gorkha.gorkhajewellery.model.Invoice;
+import com.gorkha.gorkhajewellery.model.InvoiceItem;
+import com.gorkha.gorkhajewellery.model.Money;
+import com.gorkha.gorkhajewellery.pricing.PricingRules;
+import com.gorkha.gorkhajewellery.repository.InvoiceRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Realistic-looking invoices for the benchmarks. Fixed seeds, so every run measures the same data.
+ */
+public final class BenchmarkData {
+
+    public static final Money RATE_22K = Money.parse("1340.00");
+    public static final Money RATE_24K = Money.parse("1430.00");
+
+    // Both kinds of making charge, plus categories without one (Necklace, Pendant)
+    public static final PricingRules RULES = PricingRules.compile(List.of("22K", "24K", "18K", "Silver"),
+            "Ring:12%, Chain:8%, Bangle:250/g, Earring:10%", "Silver:10 Gram");
+
+    private static final int SEED_CHUNK = 1000;
+
+    private static final String[] NAMES = {"Ram Bahadur", "Sita Gurung", "Hari Thapa", "Gita Rai", "Bishnu Magar", "Maya Tamang"};
+    private static final String[] ITEMS = {"Ring", "Chain", "Bangle", "Earring", "Necklace", "Pendant"};
+
+    private BenchmarkData() {}
+
+    public static Money rate(String purity) {
+        return "24K".equals(purity) ? RATE_24K : RATE_22K; // Only these two in the test data
+    }
+
+    /** Prices the line the way InvoiceTotals does, looking the rules up each time. */
+    public static void price(InvoiceItem item) {
+        item.calculateLineTotal(RULES.pricer(item.getPurity(), item.getCategory()), rate(item.getPurity()));
+    }
+
+    public static InvoiceItem item(Random random) {
+        InvoiceItem item = new InvoiceItem();
+        item.setDescription(ITEMS[random.nextInt(ITEMS.length)]);
+        item.setCategory(item.getDescription());
+        item.setPurity(random.nextInt(4) == 0 ? "24K" : "22K");
+        item.setWeightUnit(random.nextBoolean() ? "Lal" : "Tola");
+        item.setNetWeightLal("Tola".equals(item.getWeightUnit()) ? 0.5 + random.nextInt(300) / 100.0 : 20 + random.nextInt(400));
+        item.setWastageLal(random.nextInt(20));
+        item.setWages(Money.ofCents(50_00 + random.nextInt(200_00)));
+        item.setStoneCost(random.nextInt(3) == 0 ? Money.ofCents(random.nextInt(500_00)) : Money.ZERO);
+        price(item);
+        return item;
+    }
+
+    /** An unsaved invoice (no id, no number) with its totals calculated. */
+    public static Invoice invoice(int lines, Random random) {
+        Invoice invoice = new Invoice();
+        invoice.setDate(LocalDate.now().minusDays(random.nextInt(365)));
+        invoice.setCustomerName(NAMES[random.nextInt(NAMES.length)] + " " + random.nextInt(1000));
+        invoice.setCustomerPhone("98" + (10_000_000 + random.nextInt(89_999_999)));
+        invoice.setCustomerAddress("Auburn NSW");
+        invoice.setSoldBy("Counter " + (1 + random.nextInt(3)));
+        invoice.setRate22k(RATE_22K);
+        invoice.setRate24k(RATE_24K);
+        invoice.setGstPercent(10);
+        for (int i = 0; i < lines; i++) invoice.addItem(item(random));
+        invoice.calculateTotals();
+        return invoice;
+    }
+
+    /**
+     * Starts the app (no UI) on the H2 database in {@code dir}, plus any extra "--name=value" arguments.
+     * Command-line arguments, not builder properties: those are defaults and lose to application.properties.
+     */
+    public static ConfigurableApplicationContext start(Path dir, String... args) {
+        String[] all = Stream.concat(Stream.of(
+                        "--spring.datasource.url=jdbc:h2:file:" + dir.resolve("gorkha_db").toAbsolutePath(),
+                        "--app.db.dir=" + dir.toAbsolutePath(),
+                        "--app.invoice.dir=" + dir.resolve("Invoices").toAbsolutePath()),
+                Stream.of(args)).toArray(String[]::new);
+        return new SpringApplicationBuilder(GorkhaJewelleryApplication.class)
+                .web(WebApplicationType.NONE)
+                .headless(true)
+                .run(all);
+    }
+
+    /** Writes {@code count} invoices straight into the table, SEED_CHUNK per transaction (no numbering, no rollups). */
+    public static void seed(ConfigurableApplicationContext context, int count) {
+        InvoiceRepository repository = context.getBean(InvoiceRepository.class);
+        TransactionTemplate tx = context.getBean(TransactionTemplate.class);
+        Random random = new Random(42);
+        for (int done = 0; done < count; done += SEED_CHUNK) {
+            List<Invoice> chunk = new ArrayList<>(SEED_CHUNK);
+            for (int i = done; i < Math.min(done + SEED_CHUNK, count); i++) {
+                Invoice invoice = invoice(1 + random.nextInt(6), random);
+                invoice.setInvoiceNumber(String.format("SEED-%07d", i));
+                chunk.add(invoice);
+            }
+            tx.executeWithoutResult(status -> repository.saveAll(chunk));
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.gorkha.gorkhajewellery.benchmark;
+
+import com.gorkha.gorkhajewellery.service.CsvExportService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CSV export of a whole year (invoices + line items) from a seeded H2 file database.
+ *
+ * Besides the time per export the results have two extra columns:
+ *   rows         invoice + item rows written per second
+ *   peakHeapMb   the most heap in use during an export (sum of the heap pools' peaks - an upper bound).
+ *                Streaming should keep it flat as seededInvoices grows - compare with a bigger database:
+ *
+ *   mvn -Pbenchmarks verify -Djmh.args="CsvExport"
+ *   mvn -Pbenchmarks verify -Djmh.args="CsvExport -p seededInvoices=100000,500000"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgs = "-Xmx512m") // A till-sized heap
+public class CsvExportBenchmark {
+
+    @Param({"10000"}) // Bigger ones with -p (see above) - seeding 500k takes minutes
+    int seededInvoices;
+
+    private ConfigurableApplicationContext context;
+    private CsvExportService exportService;
+    private Path outputDir;
+    private final LocalDate from = LocalDate.now().minusDays(365); // All of BenchmarkData's dates
+    private final LocalDate to = LocalDate.now();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Path dir = Files.createTempDirectory("gj-bench-csv");
+        context = BenchmarkData.start(dir);
+        BenchmarkData.seed(context, seededInvoices);
+        exportService = context.getBean(CsvExportService.class);
+        outputDir = dir.resolve("export");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Rows {
+        public long rows;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            rows = 0;
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Heap {
+        public long peakHeapMb;
+        private final List<MemoryPoolMXBean> pools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(p -> p.getType() == MemoryType.HEAP)
+                .toList();
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            peakHeapMb = 0;
+        }
+
+        @Setup(Level.Invocation)
+        public void resetPeaks() {
+            pools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        }
+
+        @TearDown(Level.Invocation)
+        public void readPeaks() {
+            long peak = 0;
+            for (MemoryPoolMXBean pool : pools) peak += pool.getPeakUsage().getUsed();
+            peakHeapMb = Math.max(peakHeapMb, peak / (1024 * 1024));
+        }
+    }
+
+    @Benchmark
+    public CsvExportService.Result exportYear(Rows rows, Heap heap) throws Exception {
+        CsvExportService.Result result = exportService.export(from, to, outputDir, (done, total) -> {});
+        rows.rows += result.invoices() + result.items();
+        return result;
+    }
+}
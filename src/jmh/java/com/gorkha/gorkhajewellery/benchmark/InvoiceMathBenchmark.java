@@ -0,0 +1,123 @@
+package com.gorkha.gorkhajewellery.benchmark;
+
+import com.gorkha.gorkhajewellery.model.Invoice;
+import com.gorkha.gorkhajewellery.model.InvoiceItem;
+import com.gorkha.gorkhajewellery.model.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pricing math: one line, and the full recalculation (every line + Invoice.calculateTotals)
+ * that runs on save and when the form is reset.
+ *
+ * totalsMoney / totalsDouble / totalsBigDecimal: the same invoice math (rate x weight + wages + stones
+ * per line, then subtotal, old gold, GST, discount, advance) in Money, plain double (as before Money)
+ * and BigDecimal. Compare time and allocation with the GC profiler (gc.alloc.rate.norm = bytes per call):
+ *   mvn -Pbenchmarks verify -Djmh.args="InvoiceMath.totals -prof gc"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InvoiceMathBenchmark {
+
+    @Param({"1", "50", "500"})
+    int lines;
+
+    private static final double GST_PERCENT = 10;
+
+    private InvoiceItem item;
+    private Invoice invoice;
+
+    // The invoice's lines as plain inputs, once per number type
+    private double[] weightTola;
+    private Money[] rateMoney, wagesMoney, stoneMoney;
+    private double[] rateDouble, wagesDouble, stoneDouble;
+    private BigDecimal[] weightDecimal, rateDecimal, wagesDecimal, stoneDecimal;
+    private final Money oldGold = Money.parse("1500.00"), discount = Money.parse("50.00"), advance = Money.parse("2000.00");
+    private final double oldGoldDouble = 1500.00, discountDouble = 50.00, advanceDouble = 2000.00;
+    private final BigDecimal oldGoldDecimal = new BigDecimal("1500.00"), discountDecimal = new BigDecimal("50.00"),
+            advanceDecimal = new BigDecimal("2000.00"), gstDecimal = BigDecimal.valueOf(GST_PERCENT), hundred = BigDecimal.valueOf(100);
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        item = BenchmarkData.item(random);
+        invoice = BenchmarkData.invoice(lines, random);
+
+        weightTola = new double[lines];
+        rateMoney = new Money[lines]; wagesMoney = new Money[lines]; stoneMoney = new Money[lines];
+        rateDouble = new double[lines]; wagesDouble = new double[lines]; stoneDouble = new double[lines];
+        weightDecimal = new BigDecimal[lines]; rateDecimal = new BigDecimal[lines];
+        wagesDecimal = new BigDecimal[lines]; stoneDecimal = new BigDecimal[lines];
+        for (int i = 0; i < lines; i++) {
+            InvoiceItem line = invoice.getItems().get(i);
+            weightTola[i] = line.getTotalWeightTola();
+            rateMoney[i] = BenchmarkData.rate(line.getPurity());
+            wagesMoney[i] = line.getWages();
+            stoneMoney[i] = line.getStoneCost();
+            rateDouble[i] = rateMoney[i].doubleValue();
+            wagesDouble[i] = wagesMoney[i].doubleValue();
+            stoneDouble[i] = stoneMoney[i].doubleValue();
+            weightDecimal[i] = BigDecimal.valueOf(weightTola[i]);
+            rateDecimal[i] = BigDecimal.valueOf(rateMoney[i].getCents(), 2);
+            wagesDecimal[i] = BigDecimal.valueOf(wagesMoney[i].getCents(), 2);
+            stoneDecimal[i] = BigDecimal.valueOf(stoneMoney[i].getCents(), 2);
+        }
+    }
+
+    @Benchmark
+    public InvoiceItem calculateLineTotal() {
+        BenchmarkData.price(item);
+        return item;
+    }
+
+    @Benchmark
+    public Invoice recalculateAll() {
+        for (InvoiceItem i : invoice.getItems()) BenchmarkData.price(i);
+        invoice.calculateTotals();
+        return invoice;
+    }
+
+    // --- Same math, three number types ---
+
+    @Benchmark
+    public Money totalsMoney() {
+        Money subTotal = Money.ZERO;
+        for (int i = 0; i < lines; i++) {
+            subTotal = subTotal.plus(rateMoney[i].times(weightTola[i]).plus(wagesMoney[i]).plus(stoneMoney[i]));
+        }
+        Money taxable = subTotal.minus(oldGold);
+        Money grandTotal = taxable.plus(taxable.percent(GST_PERCENT)).minus(discount);
+        return grandTotal.minus(advance);
+    }
+
+    @Benchmark
+    public double totalsDouble() {
+        double subTotal = 0;
+        for (int i = 0; i < lines; i++) {
+            subTotal += rateDouble[i] * weightTola[i] + wagesDouble[i] + stoneDouble[i];
+        }
+        double taxable = subTotal - oldGoldDouble;
+        double grandTotal = taxable + taxable * GST_PERCENT / 100 - discountDouble;
+        return grandTotal - advanceDouble;
+    }
+
+    @Benchmark
+    public BigDecimal totalsBigDecimal() {
+        BigDecimal subTotal = BigDecimal.ZERO;
+        for (int i = 0; i < lines; i++) {
+            BigDecimal metal = rateDecimal[i].multiply(weightDecimal[i]).setScale(2, RoundingMode.HALF_UP);
+            subTotal = subTotal.add(metal).add(wagesDecimal[i]).add(stoneDecimal[i]);
+        }
+        BigDecimal taxable = subTotal.subtract(oldGoldDecimal);
+        BigDecimal gst = taxable.multiply(gstDecimal).divide(hundred, 2, RoundingMode.HALF_UP);
+        return taxable.add(gst).subtract(discountDecimal).subtract(advanceDecimal);
+    }
+}
@@ -0,0 +1,52 @@
+package com.gorkha.gorkhajewellery.benchmark;
+
+import com.gorkha.gorkhajewellery.model.Invoice;
+import com.gorkha.gorkhajewellery.service.PdfService;
+import com.gorkha.gorkhajewellery.service.PdfViewer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Invoice PDF rendering (the work behind Save & Print, the preview and batch export),
+ * written to a null stream so only layout + PDF encoding is measured, not the disk.
+ * Run from the project folder so logo.png / signature.png are picked up like in the app.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PdfRenderBenchmark {
+
+    @Param({"1", "50", "500"})
+    int lines;
+
+    private PdfService pdfService;
+    private Invoice invoice;
+
+    @Setup
+    public void setUp() throws Exception {
+        pdfService = new PdfService("logo.png", "signature.png",
+                Files.createTempDirectory("gj-bench-pdf").toString(), new PdfViewer(), new SimpleMeterRegistry());
+        invoice = BenchmarkData.invoice(lines, new Random(42));
+        invoice.setId(1L);
+        invoice.setInvoiceNumber("GJ-2025-26-00001");
+    }
+
+    @Benchmark
+    public void renderToNullStream() throws Exception {
+        pdfService.render(invoice, OutputStream.nullOutputStream(), PdfService.RenderSource.PRINT);
+    }
+
+    @Benchmark
+    @Threads(4) // Batch export renders on several threads at once
+    public void renderToNullStreamParallel() throws Exception {
+        pdfService.render(invoice, OutputStream.nullOutputStream(), PdfService.RenderSource.PRINT);
+    }
+}
@@ -0,0 +1,115 @@
+package com.gorkha.gorkhajewellery.benchmark;
+
+import com.gorkha.gorkhajewellery.model.InvoiceItem;
+import com.gorkha.gorkhajewellery.model.Money;
+import com.gorkha.gorkhajewellery.pricing.LinePricer;
+import com.gorkha.gorkhajewellery.pricing.PricingRules;
+import com.gorkha.gorkhajewellery.pricing.WeightUnit;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk repricing with the compiled rules (PricingRules / LinePricer).
+ *
+ *   repriceUnchanged  - same rates again: nothing changes, so nothing should be allocated
+ *   repriceNewRate    - every line changes: one new lineTotal per line (and making charge where it has one)
+ *   repriceLookup     - as repriceUnchanged, but looking the rules up per line instead of using the item's pricer
+ *   valueStock        - primitive path (LinePricer.priceCents) over weights held in arrays
+ *
+ * Check the allocations with the GC profiler - gc.alloc.rate.norm should be ~0 B/op for
+ * repriceUnchanged and valueStock:
+ *   mvn -Pbenchmarks verify -Djmh.args="Pricing -prof gc"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PricingBenchmark {
+
+    @Param({"50", "1000", "10000"})
+    int lines;
+
+    private final PricingRules rules = BenchmarkData.RULES;
+    private final Money otherRate = Money.parse("1345.00");
+    private List<InvoiceItem> items;
+    private Money[] rates; // Per line, so the loops measure pricing only
+    private boolean toggle;
+
+    // Stock as arrays: pricer, rate, weight (Tola) and hand-added cents per piece
+    private LinePricer[] pricers;
+    private long[] rateCents;
+    private double[] weightTola;
+    private long[] extraCents;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        items = new ArrayList<>(lines);
+        rates = new Money[lines];
+        pricers = new LinePricer[lines];
+        rateCents = new long[lines];
+        weightTola = new double[lines];
+        extraCents = new long[lines];
+
+        for (int i = 0; i < lines; i++) {
+            InvoiceItem item = BenchmarkData.item(random);
+            if (i % 3 == 0) item.setWeightUnit(WeightUnit.GRAM.getLabel());
+            item.setPricer(rules.pricer(item.getPurity(), item.getCategory()));
+            BenchmarkData.price(item);
+            items.add(item);
+            rates[i] = BenchmarkData.rate(item.getPurity());
+
+            pricers[i] = item.getPricer();
+            rateCents[i] = rates[i].getCents();
+            weightTola[i] = item.getTotalWeightTola();
+            extraCents[i] = item.getWages().getCents() + item.getStoneCost().getCents();
+        }
+    }
+
+    @Benchmark
+    public long repriceUnchanged() {
+        long sum = 0;
+        for (int i = 0; i < lines; i++) {
+            InvoiceItem item = items.get(i);
+            item.calculateLineTotal(item.getPricer(), rates[i]);
+            sum += item.getLineTotal().getCents();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long repriceNewRate() {
+        toggle = !toggle;
+        long sum = 0;
+        for (int i = 0; i < lines; i++) {
+            InvoiceItem item = items.get(i);
+            item.calculateLineTotal(item.getPricer(), toggle ? otherRate : rates[i]);
+            sum += item.getLineTotal().getCents();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long repriceLookup() {
+        long sum = 0;
+        for (int i = 0; i < lines; i++) {
+            InvoiceItem item = items.get(i);
+            item.calculateLineTotal(rules.pricer(item.getPurity(), item.getCategory()), rates[i]);
+            sum += item.getLineTotal().getCents();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long valueStock() {
+        long sum = 0;
+        for (int i = 0; i < lines; i++) sum += pricers[i].priceCents(rateCents[i], weightTola[i], extraCents[i]);
+        return sum;
+    }
+}
@@ -0,0 +1,110 @@
+package com.gorkha.gorkhajewellery.benchmark;
+
+import com.gorkha.gorkhajewellery.model.Invoice;
+import com.gorkha.gorkhajewellery.model.InvoiceSummary;
+import com.gorkha.gorkhajewellery.repository.InvoiceRepository;
+import com.gorkha.gorkhajewellery.service.InvoiceSearchService;
+import com.gorkha.gorkhajewellery.service.InvoiceService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Database paths against a seeded H2 file database (fresh per run, in a temp folder):
+ * saving an invoice, type-ahead search and the first Sales History page.
+ *
+ * saveConcurrently runs with several threads in SampleTime mode - the JSON then has the
+ * throughput of N counters saving at once plus the latency percentiles (p0.99 etc.).
+ *
+ * Search target: under 10 ms at 500k invoices. searchByName is a short prefix shared by a sixth of all
+ * invoices (the worst case: newest 50 of ~80k matches); searchByFullName narrows it to a few.
+ *   mvn -Pbenchmarks verify -Djmh.args="Repository.search -p seededInvoices=500000 -p indexes=true"
+ *
+ * indexes=false drops the V3 history/search indexes after seeding: the query latency before that migration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+
+    @Param({"10000"}) // 500000 (the search target) only when asked for with -p, see above - seeding it takes minutes per trial
+    int seededInvoices;
+
+    @Param({"true", "false"}) // false = without the V3 indexes (history paging and search run as table scans)
+    boolean indexes;
+
+    private ConfigurableApplicationContext context;
+    private InvoiceService invoiceService;
+    private InvoiceSearchService searchService;
+    private InvoiceRepository invoiceRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Path dir = Files.createTempDirectory("gj-bench-db");
+        context = BenchmarkData.start(dir);
+        invoiceService = context.getBean(InvoiceService.class);
+        searchService = context.getBean(InvoiceSearchService.class);
+        invoiceRepository = context.getBean(InvoiceRepository.class);
+        BenchmarkData.seed(context, seededInvoices);
+        if (!indexes) dropIndexes(context.getBean(JdbcTemplate.class));
+    }
+
+    // The history and search indexes from V3 - for the before/after comparison of that migration
+    private static void dropIndexes(JdbcTemplate jdbc) {
+        jdbc.execute("DROP INDEX idx_invoice_date");
+        jdbc.execute("DROP INDEX idx_invoice_customer_key");
+        jdbc.execute("DROP INDEX idx_invoice_phone_digits");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Source {
+        final Random random = new Random(Thread.currentThread().threadId());
+    }
+
+    @Benchmark
+    public Invoice save(Source source) {
+        return invoiceService.save(BenchmarkData.invoice(5, source.random));
+    }
+
+    @Benchmark
+    @Threads(3) // A busy Saturday: three counters
+    @BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+    public Invoice saveConcurrently(Source source) {
+        return invoiceService.save(BenchmarkData.invoice(5, source.random));
+    }
+
+    @Benchmark
+    public List<InvoiceSummary> searchByName() {
+        return searchService.search("sita");
+    }
+
+    @Benchmark
+    public List<InvoiceSummary> searchByFullName() {
+        return searchService.search("sita gurung 42");
+    }
+
+    @Benchmark
+    public List<InvoiceSummary> searchByPhone() {
+        return searchService.search("9841");
+    }
+
+    @Benchmark
+    public List<InvoiceSummary> historyFirstPage() {
+        return invoiceRepository.findLatestSummaries(PageRequest.of(0, 100));
+    }
+}
@@ -0,0 +1,61 @@
+package com.gorkha.gorkhajewellery.benchmark;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opening the database at startup (what the app's warm-up does): Flyway, then Hibernate.
+ *
+ *   flyway-validate   - now: Flyway checks its history table, Hibernate only validates the schema
+ *   hibernate-update  - before the migrations: no Flyway, Hibernate diffs the schema (ddl-auto=update)
+ *
+ * Each measurement opens an existing, seeded database - a normal morning start, not a first install.
+ * The Spring context itself is started outside the measurement (beans are lazy).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class StartupBenchmark {
+
+    @Param({"flyway-validate", "hibernate-update"})
+    String schema;
+
+    @Param({"50000"})
+    int seededInvoices;
+
+    private Path dir;
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void createDatabase() throws Exception {
+        dir = Files.createTempDirectory("gj-bench-startup");
+        try (ConfigurableApplicationContext seeding = BenchmarkData.start(dir)) {
+            BenchmarkData.seed(seeding, seededInvoices); // Migrated by Flyway on first use
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void startContext() {
+        context = "hibernate-update".equals(schema)
+                ? BenchmarkData.start(dir, "--spring.flyway.enabled=false", "--spring.jpa.hibernate.ddl-auto=update")
+                : BenchmarkData.start(dir);
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeContext() {
+        context.close();
+    }
+
+    @Benchmark
+    public EntityManagerFactory openDatabase() {
+        return context.getBean(EntityManagerFactory.class);
+    }
+}
@@ -0,0 +1,73 @@
+package com.gorkha.gorkhajewellery.ui;
+
+import com.gorkha.gorkhajewellery.benchmark.BenchmarkData;
+import com.gorkha.gorkhajewellery.model.InvoiceItem;
+import com.gorkha.gorkhajewellery.model.Money;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The form's totals (InvoiceTotals): full pass vs. the incremental paths used while typing.
+ * Items have their table properties created (as when shown in the table), so property updates are included.
+ * (In the ui package because InvoiceTotals is package-private; needs no FX toolkit.)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InvoiceTotalsBenchmark {
+
+    @Param({"1", "50", "500", "1000"})
+    int lines;
+
+    private final Map<String, Money> rates = new HashMap<>(); // Stands in for the rate history
+    private InvoiceTotals totals;
+    private InvoiceItem edited;
+    private boolean toggle;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        ObservableList<InvoiceItem> items = FXCollections.observableArrayList();
+        for (int i = 0; i < lines; i++) {
+            InvoiceItem item = BenchmarkData.item(random);
+            item.lineTotalProperty(); // Like a visible row: recalculation also updates the properties
+            items.add(item);
+        }
+        rates.put("22K", BenchmarkData.RATE_22K);
+        rates.put("24K", BenchmarkData.RATE_24K);
+        totals = new InvoiceTotals(items, "22K", BenchmarkData.RULES, rates::get);
+        totals.setGstPercent(10);
+        edited = items.get(items.size() / 2);
+    }
+
+    @Benchmark
+    public Money recalculateAll() {
+        totals.recalculateAll();
+        return totals.balanceProperty().get();
+    }
+
+    @Benchmark
+    public Money editOneLine() {
+        toggle = !toggle;
+        edited.setWastageLal(toggle ? 5 : 6);
+        totals.itemChanged(edited);
+        return totals.balanceProperty().get();
+    }
+
+    @Benchmark
+    public Money change22kRate() {
+        toggle = !toggle;
+        rates.put("22K", toggle ? Money.parse("1341.00") : BenchmarkData.RATE_22K);
+        totals.rateChanged("22K");
+        return totals.balanceProperty().get();
+    }
+}
@@ -0,0 +1,65 @@
+package com.gorkha.gorkhajewellery;
+
+import com.gorkha.gorkhajewellery.service.BatchExportService;
+import com.gorkha.gorkhajewellery.service.CsvExportService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Headless bulk export (no UI), e.g. for the accountant at end of quarter:
+ *
+ *   java -Dloader.main=com.gorkha.gorkhajewellery.BatchExportLauncher -cp app.jar \
+ *        org.springframework.boot.loader.launch.PropertiesLauncher 2024-07-01 2024-09-30 ~/Desktop/Q1 [--merged | --csv]
+ *
+ * (app.jar is a Spring Boot jar: its classes are only reachable through Boot's launcher, hence loader.main.)
+ *
+ * --csv writes the invoices and line items as two CSV files instead of PDFs.
+ * Any other --name=value is passed to Spring. While the till is running, the database file is in use:
+ * export through the main till (which must run with the "server" profile) like another till does -
+ *
+ *   ... ~/Desktop/Q1 --csv --spring.profiles.active=client --app.db.host=<main till's IP>
+ *
+ * (same credentials as the tills, see H2ServerConfig).
+ */
+public class BatchExportLauncher {
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Usage: BatchExportLauncher <from yyyy-MM-dd> <to yyyy-MM-dd> <output folder> [--merged | --csv] [--spring.option=value ...]");
+            System.exit(2);
+        }
+        LocalDate from = LocalDate.parse(args[0]);
+        LocalDate to = LocalDate.parse(args[1]);
+        Path outputDir = Path.of(args[2]);
+        String option = "";
+        List<String> springArgs = new ArrayList<>(); // e.g. --spring.profiles.active=client
+        for (String arg : Arrays.copyOfRange(args, 3, args.length)) {
+            if ("--merged".equals(arg) || "--csv".equals(arg)) option = arg;
+            else springArgs.add(arg);
+        }
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(GorkhaJewelleryApplication.class)
+                .web(WebApplicationType.NONE)
+                .headless(true)
+                .run(springArgs.toArray(String[]::new))) {
+            if ("--csv".equals(option)) {
+                CsvExportService.Result result = context.getBean(CsvExportService.class).export(from, to, outputDir,
+                        (done, total) -> System.out.printf("\r%d / %d rows", done, total));
+                System.out.println();
+                System.out.println("Exported " + result.invoices() + " invoices, " + result.items() + " items to " + outputDir.toAbsolutePath());
+                return;
+            }
+            boolean merged = "--merged".equals(option);
+            long count = context.getBean(BatchExportService.class).export(from, to, outputDir, merged,
+                    (done, total) -> System.out.printf("\r%d / %d", done, total));
+            System.out.println();
+            System.out.println("Exported " + count + " invoices to " + outputDir.toAbsolutePath());
+        }
+    }
+}
@@ -1,29 +1,91 @@
 package com.gorkha.gorkhajewellery;
 
 import atlantafx.base.theme.PrimerLight; // <--- NEW IMPORT
+import com.gorkha.gorkhajewellery.service.CustomerService;
+import com.gorkha.gorkhajewellery.service.GoldRateService;
+import com.gorkha.gorkhajewellery.service.ReportService;
+import com.gorkha.gorkhajewellery.service.SettingsService;
+import jakarta.persistence.EntityManagerFactory;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
+import javafx.geometry.Pos;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
+import javafx.stage.StageStyle;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.builder.SpringApplicationBuilder;
 import org.springframework.context.ConfigurableApplicationContext;
 
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+@Slf4j
 @SpringBootApplication
 public class GorkhaJewelleryApplication extends Application {
 
-    private ConfigurableApplicationContext context;
+    private volatile ConfigurableApplicationContext context;
 
     @Override
-    public void init() {
-        context = new SpringApplicationBuilder(GorkhaJewelleryApplication.class).run();
+    public void start(Stage stage) {
+        Application.setUserAgentStylesheet(new PrimerLight().getUserAgentStylesheet());
+
+        // 1. Splash first - the counter sees something right away
+        Stage splash = showSplash();
+
+        // 2. Boot Spring in parallel (beans are lazy - see application.properties)
+        CompletableFuture<ConfigurableApplicationContext> boot = new CompletableFuture<>();
+        Thread booter = new Thread(() -> {
+            try {
+                boot.complete(new SpringApplicationBuilder(GorkhaJewelleryApplication.class).run());
+            } catch (Throwable e) {
+                boot.completeExceptionally(e);
+            }
+        }, "gj-startup");
+        // Our own class loader: in the packaged jar only it sees BOOT-INF/classes (and the auto-configurations)
+        booter.setContextClassLoader(getClass().getClassLoader());
+        booter.start();
+
+        boot.whenComplete((ctx, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                log.error("Startup failed", error);
+                failStartup(splash, "Gorkha Jewellery could not start.", error);
+                return;
+            }
+            context = ctx;
+            try {
+                showMainWindow(stage);
+            } catch (Exception e) {
+                log.error("Could not open the main window", e);
+                failStartup(splash, "Gorkha Jewellery could not open its main window.", e);
+                return;
+            }
+            splash.close();
+            log.info("Time to first frame: {} ms", sinceJvmStart());
+            warmUp();
+        }));
     }
 
-    @Override
-    public void start(Stage stage) throws Exception {
-        Application.setUserAgentStylesheet(new PrimerLight().getUserAgentStylesheet());
+    // Tell the user before closing - otherwise the app just vanishes after the splash
+    private void failStartup(Stage splash, String what, Throwable error) {
+        splash.close();
+        Throwable cause = error;
+        while (cause.getCause() != null) cause = cause.getCause(); // The root cause says what to fix
+        new Alert(Alert.AlertType.ERROR, what + "\n\n" + cause.getMessage() + "\n\nDetails are in the log.").showAndWait();
+        Platform.exit();
+    }
 
+    private void showMainWindow(Stage stage) throws Exception {
         FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/fxml/main.fxml"));
         fxmlLoader.setControllerFactory(context::getBean);
         Parent root = fxmlLoader.load();
@@ -37,8 +99,42 @@ public class GorkhaJewelleryApplication extends Application {
         stage.show();
     }
 
+    private Stage showSplash() {
+        VBox box = new VBox(15, new ProgressIndicator(), new Label("Starting Gorkha Jewellery..."));
+        File logo = new File("logo.png");
+        if (logo.exists()) box.getChildren().add(0, new ImageView(new Image(logo.toURI().toString(), 200, 120, true, true)));
+        box.setAlignment(Pos.CENTER);
+        box.setStyle("-fx-padding: 30; -fx-background-color: white;");
+
+        Stage splash = new Stage(StageStyle.UNDECORATED);
+        splash.setScene(new Scene(box, 360, 260));
+        splash.show();
+        return splash;
+    }
+
+    // The window is up; open the database now so the first save/search doesn't wait for Hibernate
+    private void warmUp() {
+        context.getBean(ExecutorService.class).execute(() -> {
+            try {
+                context.getBean(EntityManagerFactory.class); // Runs Flyway, then starts Hibernate
+                log.info("Database ready: {} ms", sinceJvmStart());
+                context.getBean(ReportService.class).backfillIfNeeded(); // Before anything else - saves wait for it
+                context.getBean(CustomerService.class).warmUp(); // Autocomplete
+                context.getBean(GoldRateService.class).warmUp(); // Rate history + drop folder
+            } catch (Exception e) {
+                log.error("Database warm-up failed", e);
+            }
+        });
+    }
+
+    private static long sinceJvmStart() {
+        return System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+    }
+
     @Override
     public void stop() {
+        if (context == null) return; // Closed before Spring finished starting
+        context.getBean(SettingsService.class).flush(); // Pending rate changes
         context.close();
     }
-}
\ No newline at end of file
+}
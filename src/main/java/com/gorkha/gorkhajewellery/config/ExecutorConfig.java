@@ -0,0 +1,20 @@
+package com.gorkha.gorkhajewellery.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * Runs database and PDF work off the JavaFX thread.
+     * Virtual threads: the work is mostly I/O (H2 file, PDF file), so no pool sizing needed.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService backgroundExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("gj-background-", 0).factory());
+    }
+}
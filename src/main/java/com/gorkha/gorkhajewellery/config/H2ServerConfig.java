@@ -0,0 +1,69 @@
+package com.gorkha.gorkhajewellery.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.h2.tools.Server;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Profile;
+
+import java.sql.SQLException;
+
+/**
+ * MAIN TILL (profile "server"): opens the database file itself and shares it with the other tills over TCP.
+ *
+ *   main till:    --spring.profiles.active=server
+ *   other tills:  --spring.profiles.active=client --app.db.host=<main till's IP>
+ *
+ * The main till uses the normal embedded connection (fastest); the others connect to this server.
+ *
+ * CREDENTIALS: the server is open to the whole shop network, and its user is a database admin (who can
+ * run CREATE ALIAS - i.e. any code on this till). So the server profile refuses to start with the
+ * password from application.properties. Put the real ones outside the jar, on every till, in
+ * Documents/GorkhaJewellery/database.properties (imported by application.properties):
+ *
+ *   spring.datasource.username=admin
+ *   spring.datasource.password=<the shop's own password>
+ *
+ * An existing database keeps the password it was created with; change it once on the main till first:
+ *   java -cp h2.jar org.h2.tools.Shell -url jdbc:h2:file:<app.db.dir>/gorkha_db -user admin -password password
+ *        -sql "ALTER USER admin SET PASSWORD '<the shop's own password>'"
+ */
+@Slf4j
+@Configuration
+@Profile("server")
+@Lazy(false) // Checked at startup, not when the database is first used
+public class H2ServerConfig {
+
+    static final String DEFAULT_PASSWORD = "password"; // The one in application.properties
+
+    public H2ServerConfig(@Value("${spring.datasource.password:}") String password) {
+        if (password.isBlank() || password.equals(DEFAULT_PASSWORD)) {
+            throw new IllegalStateException("The main till shares the database on the network: set spring.datasource.password "
+                    + "in Documents/GorkhaJewellery/database.properties (not the default) - see H2ServerConfig");
+        }
+    }
+
+    @Bean(destroyMethod = "stop")
+    public Server h2TcpServer(@Value("${app.db.port}") int port,
+                              @Value("${app.db.dir}") String dir) throws SQLException {
+        Server server = Server.createTcpServer(
+                "-tcpPort", String.valueOf(port),
+                "-tcpAllowOthers",   // Other tills on the shop network
+                "-baseDir", dir,
+                "-ifExists").start(); // Clients may only open the existing shop database
+        log.info("Database shared on {}", server.getURL());
+        return server;
+    }
+
+    // Same as Spring Boot's own DataSource, but only created once the TCP server is up
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties properties, Server h2TcpServer) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+}
@@ -0,0 +1,53 @@
+package com.gorkha.gorkhajewellery.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.logging.LoggingMeterRegistry;
+import io.micrometer.core.instrument.logging.LoggingRegistryConfig;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.HibernateMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * The only meter registry: keeps everything in memory for the Diagnostics window and writes
+     * a summary to logs/metrics.log every app.metrics.step (see logback-spring.xml).
+     * Spring Boot adds the Hikari pool meters to it; the Hibernate ones come from hibernateMetrics below.
+     */
+    @Bean(destroyMethod = "close")
+    public LoggingMeterRegistry meterRegistry(@Value("${app.metrics.step:1m}") Duration step) {
+        LoggingRegistryConfig config = new LoggingRegistryConfig() {
+            @Override public String get(String key) { return null; }
+            @Override public Duration step() { return step; }
+        };
+        return LoggingMeterRegistry.builder(config).build();
+    }
+
+    /**
+     * Hibernate statistics meters (hibernate.*), added once Hibernate has started.
+     * Replaces Spring Boot's HibernateMetricsAutoConfiguration (excluded in application.properties),
+     * which starts Hibernate while the context starts - before the splash can be replaced by the window.
+     */
+    @Bean
+    public static BeanPostProcessor hibernateMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof EntityManagerFactory factory) {
+                    new HibernateMetrics(factory.unwrap(SessionFactory.class), beanName, Tags.empty())
+                            .bindTo(meterRegistry.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
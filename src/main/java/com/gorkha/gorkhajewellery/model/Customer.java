@@ -0,0 +1,33 @@
+package com.gorkha.gorkhajewellery.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Customer master: one row per phone number, refreshed from every saved invoice (see CustomerService).
+ * Only used to fill in the form - invoices still keep their own snapshot of name/phone/address.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(indexes = @Index(name = "idx_customer_last_visit", columnList = "last_visit")) // V14
+public class Customer {
+
+    @Id
+    private String phoneDigits; // Invoice.normalizePhone - "98-4112 3456" and "9841123456" are the same customer
+
+    @Version
+    private Long version;
+
+    private String name;
+    private String phone;   // As typed
+    private String address;
+    private LocalDate lastVisit;
+
+    public Customer(String phoneDigits) {
+        this.phoneDigits = phoneDigits;
+    }
+}
@@ -0,0 +1,35 @@
+package com.gorkha.gorkhajewellery.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Rollup: gold weight and amount sold per day and purity (22K, 24K...).
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_daily_purity_sales", columnNames = {"date", "purity"}))
+public class DailyPuritySales {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Version
+    private Long version;
+
+    private LocalDate date;
+    private String purity;
+
+    private double weightLal; // Total weight (net + wastage)
+    private long amountCents;
+
+    public DailyPuritySales(LocalDate date, String purity) {
+        this.date = date;
+        this.purity = purity;
+    }
+}
@@ -0,0 +1,45 @@
+package com.gorkha.gorkhajewellery.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Version;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Rollup: one row per day, kept up to date on every invoice save (see ReportService).
+ * Amounts are plain cents so reports can SUM them directly.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+public class DailySales {
+
+    @Id
+    private LocalDate date;
+
+    @Version // Two tills saving on the same day: the second one retries (InvoiceService.save)
+    private Long version;
+
+    private long invoiceCount;
+    private long subTotalCents;
+    private long oldGoldCents;
+    private long discountCents;
+    private long gstCents;
+    private long grandTotalCents;
+
+    public DailySales(LocalDate date) {
+        this.date = date;
+    }
+
+    public void add(Invoice invoice) {
+        invoiceCount++;
+        subTotalCents += invoice.getSubTotal().getCents();
+        oldGoldCents += invoice.getOldGoldAmount().getCents();
+        discountCents += invoice.getDiscountAmount().getCents();
+        gstCents += invoice.getGstAmount().getCents();
+        grandTotalCents += invoice.getGrandTotal().getCents();
+    }
+}
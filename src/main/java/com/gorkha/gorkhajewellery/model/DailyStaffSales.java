@@ -0,0 +1,35 @@
+package com.gorkha.gorkhajewellery.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Rollup: invoices and takings per day and staff member (Invoice.soldBy).
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_daily_staff_sales", columnNames = {"date", "sold_by"}))
+public class DailyStaffSales {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Version
+    private Long version;
+
+    private LocalDate date;
+    private String soldBy;
+
+    private long invoiceCount;
+    private long grandTotalCents;
+
+    public DailyStaffSales(LocalDate date, String soldBy) {
+        this.date = date;
+        this.soldBy = soldBy;
+    }
+}
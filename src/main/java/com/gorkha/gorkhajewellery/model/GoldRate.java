@@ -0,0 +1,23 @@
+package com.gorkha.gorkhajewellery.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * One gold rate change - the rate for a purity from 'effectiveFrom' until the next change.
+ * Kept forever so we can tell which rate applied when.
+ */
+@Entity
+@Data
+@Table(indexes = @Index(name = "uk_gold_rate_purity_time", columnList = "purity, effective_from", unique = true)) // V12
+public class GoldRate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String purity;          // "22K", "24K", "18K", "Silver" (app.rates.purities)
+    private Money ratePerUnit;      // Per the purity's rate unit (see PricingRules)
+    private LocalDateTime effectiveFrom;
+}
@@ -2,19 +2,34 @@ package com.gorkha.gorkhajewellery.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 @Entity
 @Data
+@Table(indexes = { // Created by the Flyway migrations - listed here for reference
+        @Index(name = "uk_invoice_number", columnList = "invoice_number", unique = true),
+        @Index(name = "idx_invoice_date", columnList = "date, id"),
+        @Index(name = "idx_invoice_customer_key", columnList = "customer_search_key"),
+        @Index(name = "idx_invoice_phone_digits", columnList = "phone_digits")
+})
 public class Invoice {
 
+    // Sequence (not IDENTITY) so Hibernate can batch inserts; ids are handed out in blocks of 50
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "invoice_seq")
+    @SequenceGenerator(name = "invoice_seq", sequenceName = "invoice_seq", allocationSize = 50)
     private Long id;
 
-    private String invoiceNumber; // e.g., "INV-1001"
+    @Version // Concurrent edits from two tills fail instead of silently overwriting each other
+    private Long version;
+
+    @Column(nullable = false)
+    private String invoiceNumber; // e.g., "GJ-2025-26-00001" (InvoiceNumberService)
     private LocalDate date;
 
     // --- Customer Details (Snapshot) ---
@@ -24,26 +39,66 @@ public class Invoice {
     private String customerPhone;
     private String customerAddress;
 
-    // Updated Financials
-    private double rate22k;
-    private double rate24k;
+    // --- Search Keys (derived, indexed) ---
+    // Lower-cased name and digits-only phone so a prefix LIKE can use the index.
+    private String customerSearchKey;
+    private String phoneDigits;
+
+    // Updated Financials (Money = exact cents, see MoneyConverter)
+    private Money rate22k = Money.ZERO;
+    private Money rate24k = Money.ZERO;
 
-    private double subTotal;       // Sum of items
-    private double oldGoldAmount;  // Trade-in (Less)
-    private double gstPercent;     // e.g. 10%
-    private double discountAmount; // (Less)
-    private double grandTotal;     // Final to pay
+    private Money subTotal = Money.ZERO;       // Sum of items
+    private Money oldGoldAmount = Money.ZERO;  // Trade-in (Less)
+    private double gstPercent;                 // e.g. 10%
+    private Money gstAmount = Money.ZERO;      // GST on (subTotal - oldGold)
+    private Money discountAmount = Money.ZERO; // (Less)
+    private Money grandTotal = Money.ZERO;     // Final to pay
 
-    private double advancePayment; // Paid today
-    private double balanceDue;     // Remaining
+    private Money advancePayment = Money.ZERO; // Paid today
+    private Money balanceDue = Money.ZERO;     // Remaining
 
     private String soldBy;
 
-    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
-    @JoinColumn(name = "invoice_id")
+    // LAZY: lists and search use InvoiceSummary; the PDF/reprint path uses a "join fetch" query
+    // (InvoiceRepository.findWithItemsById / findAllWithItemsByIdIn). Anything else loads items 50 invoices at a time.
+    // nullable = false: invoice_id goes into the item INSERT instead of a second UPDATE per item.
+    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @JoinColumn(name = "invoice_id", nullable = false)
+    @BatchSize(size = 50)
+    @ToString.Exclude // Logging an invoice must not trigger a lazy load
     private List<InvoiceItem> items = new ArrayList<>();
 
     public void addItem(InvoiceItem item) {
         this.items.add(item);
     }
+
+    /**
+     * Works out subTotal, GST, grand total and balance from the items (whose line totals must be calculated).
+     */
+    public void calculateTotals() {
+        long sum = 0;
+        for (InvoiceItem item : items) sum += item.getLineTotal().getCents();
+        this.subTotal = Money.ofCents(sum);
+
+        Money taxable = subTotal.minus(oldGoldAmount);
+        this.gstAmount = taxable.percent(gstPercent);
+        this.grandTotal = taxable.plus(gstAmount).minus(discountAmount);
+        this.balanceDue = grandTotal.minus(advancePayment);
+    }
+
+    @PrePersist
+    @PreUpdate
+    void updateSearchKeys() {
+        this.customerSearchKey = normalizeName(customerName);
+        this.phoneDigits = normalizePhone(customerPhone);
+    }
+
+    public static String normalizeName(String name) {
+        return name == null ? null : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public static String normalizePhone(String phone) {
+        return phone == null ? null : phone.replaceAll("[^0-9]", "");
+    }
 }
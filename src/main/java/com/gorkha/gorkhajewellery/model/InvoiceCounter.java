@@ -0,0 +1,24 @@
+package com.gorkha.gorkhajewellery.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Next invoice number for one financial year (e.g. "2025-26"), see InvoiceNumberService.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+public class InvoiceCounter {
+
+    @Id
+    private String financialYear;
+
+    private long nextNumber = 1;
+
+    public InvoiceCounter(String financialYear) {
+        this.financialYear = financialYear;
+    }
+}
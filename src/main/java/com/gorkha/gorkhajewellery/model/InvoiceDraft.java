@@ -0,0 +1,49 @@
+package com.gorkha.gorkhajewellery.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The invoice form as typed so far (not saved) - what the draft journal writes and restores.
+ * Footer fields are kept as the text in the field, so a restored form looks exactly as it was left.
+ * Rates are not part of it: a recovered draft is priced at the rates in force when it is recovered.
+ *
+ * id: one per invoice being typed (DraftJournal.newDraftId) - saving or clearing closes that draft only.
+ */
+public record InvoiceDraft(long id, LocalDateTime savedAt,
+                           String customerName, String customerPhone, String customerAddress, String soldBy,
+                           String oldGold, String discount, String gstPercent, String advance,
+                           List<Line> lines) {
+
+    public record Line(String description, String category, String purity, String weightUnit,
+                       double netWeight, double wastageLal, Money wages, Money stoneCost) {
+
+        public static Line of(InvoiceItem item) {
+            return new Line(item.getDescription(), item.getCategory(), item.getPurity(), item.getWeightUnit(),
+                    item.getNetWeightLal(), item.getWastageLal(), item.getWages(), item.getStoneCost());
+        }
+
+        public InvoiceItem toItem() {
+            InvoiceItem item = new InvoiceItem();
+            item.setDescription(description);
+            item.setCategory(category);
+            item.setPurity(purity);
+            item.setWeightUnit(weightUnit);
+            item.setNetWeightLal(netWeight);
+            item.setWastageLal(wastageLal);
+            item.setWages(wages);
+            item.setStoneCost(stoneCost);
+            return item;
+        }
+    }
+
+    /** True if nothing worth recovering was typed (a fresh form with its one empty row). */
+    public boolean isBlank() {
+        boolean noItems = lines.stream().allMatch(l -> l.description() == null || l.description().isBlank());
+        return noItems && isBlank(customerName) && isBlank(customerPhone) && isBlank(customerAddress);
+    }
+
+    private static boolean isBlank(String text) {
+        return text == null || text.isBlank();
+    }
+}
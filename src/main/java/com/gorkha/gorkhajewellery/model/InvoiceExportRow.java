@@ -0,0 +1,11 @@
+package com.gorkha.gorkhajewellery.model;
+
+import java.time.LocalDate;
+
+/**
+ * One invoice as a CSV row for the accountant (no line items, no entity in the persistence context).
+ */
+public record InvoiceExportRow(Long id, String invoiceNumber, LocalDate date, String customerName, String customerPhone,
+                               String soldBy, Money subTotal, Money oldGoldAmount, double gstPercent, Money gstAmount,
+                               Money discountAmount, Money grandTotal, Money advancePayment, Money balanceDue) {
+}
@@ -1,24 +1,37 @@
 package com.gorkha.gorkhajewellery.model;
 
+import com.gorkha.gorkhajewellery.pricing.LinePricer;
+import com.gorkha.gorkhajewellery.pricing.WeightUnit;
 import jakarta.persistence.*;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import lombok.AccessLevel;
 import lombok.Data; // <--- This generates Getters/Setters automatically
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 
 @Entity
 @Data // <--- If this is missing, the table becomes Read-Only!
 public class InvoiceItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "invoice_item_seq")
+    @SequenceGenerator(name = "invoice_item_seq", sequenceName = "invoice_item_seq", allocationSize = 50)
     private Long id;
 
     private String description;
+    private String category;           // "Ring", "Chain"... - picks the making charge (PricingRules)
     private String purity;
-    private String weightUnit = "Lal"; // "Lal" or "Tola"
+    private String weightUnit = "Lal"; // "Lal", "Tola" or "Gram" (WeightUnit)
 
     private double netWeightLal;   // The core value
     private double wastageLal;
-    private double wages;
-    private double stoneCost;
+    private Money wages = Money.ZERO;
+    private Money stoneCost = Money.ZERO;
+    private Money ratePerUnit = Money.ZERO; // Rate of this line's purity when it was priced, per its rate unit (see PricingRules)
 
     // --- Calculated Fields ---
     private double totalWeightLal;
@@ -27,41 +40,169 @@ public class InvoiceItem {
     // This field allows the "Total Weight" column to show data
     private double displayTotalWeight;
 
-    private double lineTotal;
+    private Money makingCharge = Money.ZERO; // From the category's rule
+    private Money lineTotal = Money.ZERO;
+
+    // --- Table Properties ---
+    // The item table's cell value factories bind to the xxxProperty() methods (InvoiceController), so a changed
+    // value repaints only its own cell. Created on first use - items loaded by the services never have them.
+    @Transient
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private transient Fx fx;
+
+    // Resolved once and kept until the unit / purity / category changes
+    @Transient
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient WeightUnit unit;
+    @Transient
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private transient LinePricer pricer; // Set by InvoiceTotals
 
     /**
-     * Calculates totals based on the current unit (Lal/Tola).
+     * Calculates totals based on the current unit (Lal/Tola/Gram).
+     * @param pricer      the compiled rules for this line's purity and category
+     * @param ratePerUnit the rate of this line's purity, per its rate unit (the caller looks it up, see InvoiceTotals)
      */
-    public void calculateLineTotal(double rate22k, double rate24k) {
-        // 1. Normalize Net Weight to Lal for Math
-        double actualWeightInLal = this.netWeightLal;
-
-        // If user selected Tola, convert input to Lal (1 Tola = 100 Lal approx, or 11.66g)
-        // Adjust this formula if your Tola conversion is different (e.g. 11.664g)
-        // For simple math: 1 Tola = 100 Lal in many local systems,
-        // but if using standard units: 1 Tola = 11.6638 grams.
-        // Assuming 1 Tola = 100 Lal for this specific logic:
-        if ("Tola".equals(this.weightUnit)) {
-            actualWeightInLal = this.netWeightLal * 100.0;
-        }
+    public void calculateLineTotal(LinePricer pricer, Money ratePerUnit) {
+        // 1. Total Weight in Lal (Net in its own unit + Wastage, always in Lal)
+        WeightUnit netUnit = unit();
+        this.totalWeightLal = netUnit.toLal(this.netWeightLal) + this.wastageLal;
+        this.totalWeightTola = this.totalWeightLal / WeightUnit.LAL_PER_TOLA;
+
+        // 2. Display Weight in the unit the net weight was typed in
+        double display = netUnit.fromLal(this.totalWeightLal);
 
-        // 2. Calculate Total Weight in Lal (Net + Wastage)
-        this.totalWeightLal = actualWeightInLal + this.wastageLal;
+        // 3. Metal + making charge (category rule) + wages + stones, in cents
+        long metal = pricer.metalCents(ratePerUnit.getCents(), this.totalWeightTola);
+        long making = pricer.makingCents(metal, this.totalWeightTola);
+        long total = metal + making + this.wages.getCents() + this.stoneCost.getCents();
 
-        // 3. Set Display Weight (Convert back if unit is Tola)
-        if ("Tola".equals(this.weightUnit)) {
-            this.displayTotalWeight = this.totalWeightLal / 100.0;
-        } else {
-            this.displayTotalWeight = this.totalWeightLal;
+        // 4. Only replace what changed - repricing unchanged lines creates no objects
+        this.ratePerUnit = ratePerUnit;
+        if (making != makingCharge.getCents()) this.makingCharge = Money.ofCents(making);
+        if (total != lineTotal.getCents()) this.lineTotal = Money.ofCents(total);
+        boolean weightChanged = display != displayTotalWeight;
+        this.displayTotalWeight = display;
+
+        if (fx != null) {
+            if (weightChanged) fx.displayTotalWeight.set(displayTotalWeight);
+            fx.makingCharge.set(makingCharge);
+            fx.lineTotal.set(lineTotal);
         }
+    }
+
+    private WeightUnit unit() {
+        if (unit == null) unit = WeightUnit.of(weightUnit);
+        return unit;
+    }
+
+    // --- Setters for the edited columns (also update the table) ---
+
+    public void setDescription(String description) {
+        this.description = description;
+        if (fx != null) fx.description.set(description);
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+        this.pricer = null;
+        if (fx != null) fx.category.set(category);
+    }
+
+    public void setPurity(String purity) {
+        this.purity = purity;
+        this.pricer = null;
+        if (fx != null) fx.purity.set(purity);
+    }
+
+    public void setWeightUnit(String weightUnit) {
+        this.weightUnit = weightUnit;
+        this.unit = null;
+        if (fx != null) fx.weightUnit.set(weightUnit);
+    }
+
+    public void setNetWeightLal(double netWeightLal) {
+        this.netWeightLal = netWeightLal;
+        if (fx != null) fx.netWeightLal.set(netWeightLal);
+    }
+
+    public void setWastageLal(double wastageLal) {
+        this.wastageLal = wastageLal;
+        if (fx != null) fx.wastageLal.set(wastageLal);
+    }
+
+    public void setWages(Money wages) {
+        this.wages = wages;
+        if (fx != null) fx.wages.set(wages);
+    }
+
+    public void setStoneCost(Money stoneCost) {
+        this.stoneCost = stoneCost;
+        if (fx != null) fx.stoneCost.set(stoneCost);
+    }
+
+    public ReadOnlyObjectProperty<String> descriptionProperty() { return fx().description; }
+    public ReadOnlyObjectProperty<String> categoryProperty() { return fx().category; }
+    public ReadOnlyObjectProperty<String> purityProperty() { return fx().purity; }
+    public ReadOnlyObjectProperty<String> weightUnitProperty() { return fx().weightUnit; }
+    public ReadOnlyObjectProperty<Double> netWeightLalProperty() { return fx().netWeightLal; }
+    public ReadOnlyObjectProperty<Double> wastageLalProperty() { return fx().wastageLal; }
+    public ReadOnlyObjectProperty<Money> wagesProperty() { return fx().wages; }
+    public ReadOnlyObjectProperty<Money> stoneCostProperty() { return fx().stoneCost; }
+    public ReadOnlyObjectProperty<Double> displayTotalWeightProperty() { return fx().displayTotalWeight; }
+    public ReadOnlyObjectProperty<Money> makingChargeProperty() { return fx().makingCharge; }
+    public ReadOnlyObjectProperty<Money> lineTotalProperty() { return fx().lineTotal; }
+
+    private Fx fx() {
+        if (fx == null) fx = new Fx(this);
+        return fx;
+    }
 
-        // 4. Calculate Costs (Rate is usually per Tola or 10g depending on region)
-        // Assuming Rate is per Tola (100 Lal)
-        this.totalWeightTola = this.totalWeightLal / 100.0;
+    // Read-only display copies of the fields; the fields stay the source of truth (setters write both)
+    private static class Fx {
+        final ObjectProperty<String> description, category, purity, weightUnit;
+        final ObjectProperty<Double> netWeightLal, wastageLal, displayTotalWeight;
+        final ObjectProperty<Money> wages, stoneCost, makingCharge, lineTotal;
 
-        double selectedRate = "24K".equals(purity) ? rate24k : rate22k;
-        double goldCost = this.totalWeightTola * selectedRate;
+        Fx(InvoiceItem item) {
+            description = new SimpleObjectProperty<>(item, "description", item.description);
+            category = new SimpleObjectProperty<>(item, "category", item.category);
+            purity = new SimpleObjectProperty<>(item, "purity", item.purity);
+            weightUnit = new SimpleObjectProperty<>(item, "weightUnit", item.weightUnit);
+            netWeightLal = new SimpleObjectProperty<>(item, "netWeightLal", item.netWeightLal);
+            wastageLal = new SimpleObjectProperty<>(item, "wastageLal", item.wastageLal);
+            displayTotalWeight = new SimpleObjectProperty<>(item, "displayTotalWeight", item.displayTotalWeight);
+            wages = new SimpleObjectProperty<>(item, "wages", item.wages);
+            stoneCost = new SimpleObjectProperty<>(item, "stoneCost", item.stoneCost);
+            makingCharge = new SimpleObjectProperty<>(item, "makingCharge", item.makingCharge);
+            lineTotal = new SimpleObjectProperty<>(item, "lineTotal", item.lineTotal);
+        }
+    }
 
-        this.lineTotal = goldCost + this.wages + this.stoneCost;
+    /**
+     * Detached copy (no id) - used to hand a snapshot of the table to a background thread.
+     */
+    public InvoiceItem copy() {
+        InvoiceItem c = new InvoiceItem();
+        c.description = description;
+        c.category = category;
+        c.purity = purity;
+        c.weightUnit = weightUnit;
+        c.netWeightLal = netWeightLal;
+        c.wastageLal = wastageLal;
+        c.wages = wages;
+        c.stoneCost = stoneCost;
+        c.ratePerUnit = ratePerUnit;
+        c.totalWeightLal = totalWeightLal;
+        c.totalWeightTola = totalWeightTola;
+        c.displayTotalWeight = displayTotalWeight;
+        c.makingCharge = makingCharge;
+        c.lineTotal = lineTotal;
+        return c;
     }
-}
\ No newline at end of file
+}
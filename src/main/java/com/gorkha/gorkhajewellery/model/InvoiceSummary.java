@@ -0,0 +1,10 @@
+package com.gorkha.gorkhajewellery.model;
+
+import java.time.LocalDate;
+
+/**
+ * Lightweight row for the Sales History list.
+ * Only the columns shown in the table - no line items are loaded.
+ */
+public record InvoiceSummary(Long id, LocalDate date, String invoiceNumber, String customerName, Money grandTotal) {
+}
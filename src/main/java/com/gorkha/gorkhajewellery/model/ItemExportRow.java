@@ -0,0 +1,11 @@
+package com.gorkha.gorkhajewellery.model;
+
+import java.time.LocalDate;
+
+/**
+ * One line item as a CSV row, with the invoice number/date it belongs to.
+ */
+public record ItemExportRow(String invoiceNumber, LocalDate date, String description, String purity,
+                            double netWeightLal, double wastageLal, double totalWeightLal,
+                            Money wages, Money makingCharge, Money stoneCost, Money lineTotal) {
+}
@@ -0,0 +1,101 @@
+package com.gorkha.gorkhajewellery.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An amount of money in cents (exact - no double rounding drift).
+ *
+ * Rounding policy: HALF_UP (away from zero) to the cent, applied once per operation.
+ *   times(quantity) - quantity is taken to 4 decimal places (enough for Tola from Lal with 2 decimals)
+ *   percent(p)      - p is taken to 2 decimal places (e.g. 10.25%)
+ *
+ * Immutable. For bulk sums use {@link #getCents()} and add longs.
+ */
+public final class Money implements Comparable<Money> {
+
+    public static final Money ZERO = new Money(0);
+
+    private static final long QUANTITY_SCALE = 10_000; // 4 decimals
+    private static final long PERCENT_SCALE = 10_000;  // 2 decimals of a percent
+
+    private final long cents;
+
+    private Money(long cents) {
+        this.cents = cents;
+    }
+
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    /** For values that are already doubles (e.g. legacy data) - rounded to the cent. */
+    public static Money of(double amount) {
+        return ofCents(Math.round(amount * 100));
+    }
+
+    /** Parses user input like "1340", "12.5", "-3.456" (rounded HALF_UP). Blank or invalid = ZERO. */
+    public static Money parse(String text) {
+        if (text == null || text.isBlank()) return ZERO;
+        try {
+            return ofCents(new BigDecimal(text.trim()).setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+        } catch (ArithmeticException | NumberFormatException e) {
+            return ZERO;
+        }
+    }
+
+    public long getCents() { return cents; }
+    public double doubleValue() { return cents / 100.0; }
+    public boolean isPositive() { return cents > 0; }
+    public boolean isZero() { return cents == 0; }
+
+    public Money plus(Money other) { return ofCents(Math.addExact(cents, other.cents)); }
+    public Money minus(Money other) { return ofCents(Math.subtractExact(cents, other.cents)); }
+
+    public Money times(double quantity) {
+        return ofCents(timesCents(cents, quantity));
+    }
+
+    public Money percent(double percent) {
+        return ofCents(percentCents(cents, percent));
+    }
+
+    // Same rounding on raw cents - for loops that must not allocate (pricing.LinePricer)
+    public static long timesCents(long cents, double quantity) {
+        long scaled = Math.round(quantity * QUANTITY_SCALE);
+        return divideHalfUp(Math.multiplyExact(cents, scaled), QUANTITY_SCALE);
+    }
+
+    public static long percentCents(long cents, double percent) {
+        long basisPoints = Math.round(percent * 100);
+        return divideHalfUp(Math.multiplyExact(cents, basisPoints), PERCENT_SCALE);
+    }
+
+    static long divideHalfUp(long value, long divisor) {
+        long quotient = value / divisor;
+        long remainder = value % divisor;
+        if (Math.abs(remainder) * 2 >= divisor) quotient += Long.signum(value);
+        return quotient;
+    }
+
+    /** "1234.50" - no String.format, this runs for every table cell. */
+    @Override
+    public String toString() {
+        long abs = Math.abs(cents);
+        long fraction = abs % 100;
+        StringBuilder sb = new StringBuilder(16);
+        if (cents < 0) sb.append('-');
+        sb.append(abs / 100).append('.');
+        if (fraction < 10) sb.append('0');
+        return sb.append(fraction).toString();
+    }
+
+    @Override
+    public int compareTo(Money other) { return Long.compare(cents, other.cents); }
+
+    @Override
+    public boolean equals(Object o) { return o instanceof Money m && m.cents == cents; }
+
+    @Override
+    public int hashCode() { return Long.hashCode(cents); }
+}
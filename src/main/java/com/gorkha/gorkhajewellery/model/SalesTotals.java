@@ -0,0 +1,8 @@
+package com.gorkha.gorkhajewellery.model;
+
+/**
+ * One report line: totals for a day ("2024-07-15") or a month ("2024-07").
+ */
+public record SalesTotals(String period, long invoiceCount, Money subTotal, Money oldGold,
+                          Money discount, Money gst, Money grandTotal) {
+}
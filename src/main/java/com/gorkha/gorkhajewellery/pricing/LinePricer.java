@@ -0,0 +1,33 @@
+package com.gorkha.gorkhajewellery.pricing;
+
+import com.gorkha.gorkhajewellery.model.Money;
+
+/**
+ * Pricing of one purity + category, with everything looked up in advance (see PricingRules).
+ * Works on raw cents and weights only: pricing a line creates no objects.
+ */
+public final class LinePricer {
+
+    private final double tolaPerRateUnit; // The rate is per this many Tola (1 for gold, e.g. 10 g for silver)
+    private final MakingCharge making;
+
+    LinePricer(double tolaPerRateUnit, MakingCharge making) {
+        this.tolaPerRateUnit = tolaPerRateUnit;
+        this.making = making;
+    }
+
+    /** Metal value of {@code weightTola} at {@code rateCents} per rate unit. */
+    public long metalCents(long rateCents, double weightTola) {
+        return Money.timesCents(rateCents, weightTola / tolaPerRateUnit);
+    }
+
+    public long makingCents(long metalCents, double weightTola) {
+        return making.cents(metalCents, weightTola * WeightUnit.GRAMS_PER_TOLA);
+    }
+
+    /** Metal + making charge + anything added by hand (wages, stones). For stock valuation and bulk repricing. */
+    public long priceCents(long rateCents, double weightTola, long extraCents) {
+        long metal = metalCents(rateCents, weightTola);
+        return metal + makingCents(metal, weightTola) + extraCents;
+    }
+}
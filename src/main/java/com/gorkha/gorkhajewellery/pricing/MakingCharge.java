@@ -0,0 +1,36 @@
+package com.gorkha.gorkhajewellery.pricing;
+
+import com.gorkha.gorkhajewellery.model.Money;
+
+/**
+ * Making charge of a category, worked out from the metal value and the weight of a line.
+ * Written in the config as "12%" (of the metal value), "250/g" (per gram) or "0".
+ */
+@FunctionalInterface
+public interface MakingCharge {
+
+    MakingCharge NONE = (metalCents, grams) -> 0;
+
+    long cents(long metalCents, double grams);
+
+    static MakingCharge percent(double percent) {
+        return (metalCents, grams) -> Money.percentCents(metalCents, percent);
+    }
+
+    static MakingCharge perGram(Money amount) {
+        long cents = amount.getCents();
+        return (metalCents, grams) -> Money.timesCents(cents, grams);
+    }
+
+    static MakingCharge parse(String text) {
+        String rule = text.trim().replace(" ", "");
+        try {
+            if (rule.endsWith("%")) return percent(Double.parseDouble(rule.substring(0, rule.length() - 1)));
+            if (rule.endsWith("/g")) return perGram(Money.parse(rule.substring(0, rule.length() - 2)));
+            if (Double.parseDouble(rule) == 0) return NONE;
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new IllegalArgumentException("Invalid making charge '" + text + "' (use e.g. 12%, 250/g or 0)");
+    }
+}
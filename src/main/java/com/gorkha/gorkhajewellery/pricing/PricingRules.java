@@ -0,0 +1,93 @@
+package com.gorkha.gorkhajewellery.pricing;
+
+import java.util.*;
+
+/**
+ * PRICING RULES, compiled: one LinePricer for every purity x category, built once when the rules are loaded.
+ *
+ * Rules (application.properties, see PricingService):
+ *   making charge per category   Ring:12%, Chain:8%, Bangle:250/g   (no category / not listed = none)
+ *   rate unit per purity         Silver:10 Gram                     (not listed = 1 Tola)
+ *
+ * Pricing a line is then two map lookups (InvoiceTotals keeps the result on the item until its
+ * purity or category changes) and plain arithmetic - no parsing or string checks per line.
+ */
+public final class PricingRules {
+
+    private static final String NO_CATEGORY = "";
+
+    private final List<String> categories;
+    private final Map<String, Map<String, LinePricer>> pricers = new HashMap<>(); // purity -> category -> pricer
+    private final Map<String, LinePricer> unknownPurity;                           // Rate per Tola
+
+    private PricingRules(List<String> purities, Map<String, MakingCharge> making, Map<String, Double> tolaPerRateUnit) {
+        this.categories = List.copyOf(making.keySet());
+        for (String purity : purities) {
+            pricers.put(purity, byCategory(tolaPerRateUnit.getOrDefault(purity, 1.0), making));
+        }
+        this.unknownPurity = byCategory(1.0, making);
+    }
+
+    private static Map<String, LinePricer> byCategory(double tolaPerRateUnit, Map<String, MakingCharge> making) {
+        Map<String, LinePricer> byCategory = new HashMap<>();
+        byCategory.put(NO_CATEGORY, new LinePricer(tolaPerRateUnit, MakingCharge.NONE));
+        making.forEach((category, charge) -> byCategory.put(category, new LinePricer(tolaPerRateUnit, charge)));
+        return byCategory;
+    }
+
+    /**
+     * @param purities     purities sold (app.rates.purities)
+     * @param makingRules  "Ring:12%, Chain:8%, Bangle:250/g"
+     * @param rateUnits    "Silver:10 Gram"
+     * @throws IllegalArgumentException naming the rule that could not be read
+     */
+    public static PricingRules compile(List<String> purities, String makingRules, String rateUnits) {
+        Map<String, MakingCharge> making = new LinkedHashMap<>(); // Keeps the order for the category combo
+        entries(makingRules).forEach((category, rule) -> making.put(category, MakingCharge.parse(rule)));
+
+        Map<String, Double> tolaPerRateUnit = new HashMap<>();
+        entries(rateUnits).forEach((purity, unit) -> tolaPerRateUnit.put(purity, parseRateUnit(unit)));
+
+        return new PricingRules(purities, making, tolaPerRateUnit);
+    }
+
+    public LinePricer pricer(String purity, String category) {
+        Map<String, LinePricer> byCategory = pricers.getOrDefault(purity, unknownPurity);
+        LinePricer pricer = category == null ? null : byCategory.get(category);
+        return pricer != null ? pricer : byCategory.get(NO_CATEGORY);
+    }
+
+    /** Categories with a making charge, in the order they are configured. */
+    public List<String> getCategories() {
+        return categories;
+    }
+
+    // "Name:value, Name:value" -> ordered map
+    private static Map<String, String> entries(String text) {
+        Map<String, String> entries = new LinkedHashMap<>();
+        if (text == null || text.isBlank()) return entries;
+        for (String entry : text.split(",")) {
+            int colon = entry.indexOf(':');
+            if (colon <= 0) throw new IllegalArgumentException("Invalid pricing rule '" + entry.trim() + "' (use Name:value)");
+            entries.put(entry.substring(0, colon).trim(), entry.substring(colon + 1).trim());
+        }
+        return entries;
+    }
+
+    // "10 Gram" -> 0.857 Tola
+    private static double parseRateUnit(String text) {
+        String[] parts = text.trim().split("\\s+");
+        try {
+            double quantity = parts.length == 2 ? Double.parseDouble(parts[0]) : 1;
+            String label = parts[parts.length - 1];
+            WeightUnit unit = Arrays.stream(WeightUnit.values())
+                    .filter(u -> u.getLabel().equalsIgnoreCase(label))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("unknown unit"));
+            if (quantity <= 0) throw new IllegalArgumentException("quantity must be positive");
+            return unit.toLal(quantity) / WeightUnit.LAL_PER_TOLA;
+        } catch (IllegalArgumentException e) { // Includes NumberFormatException
+            throw new IllegalArgumentException("Invalid rate unit '" + text + "' (use e.g. 1 Tola or 10 Gram): " + e.getMessage());
+        }
+    }
+}
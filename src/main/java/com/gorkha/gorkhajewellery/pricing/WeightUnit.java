@@ -0,0 +1,55 @@
+package com.gorkha.gorkhajewellery.pricing;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Units a weight can be entered in. Everything is converted through Lal (1 Tola = 100 Lal = 11.6638 g).
+ */
+public enum WeightUnit {
+
+    LAL("Lal", 1),
+    TOLA("Tola", WeightUnit.LAL_PER_TOLA),
+    GRAM("Gram", WeightUnit.LAL_PER_TOLA / WeightUnit.GRAMS_PER_TOLA);
+
+    public static final double LAL_PER_TOLA = 100;
+    public static final double GRAMS_PER_TOLA = 11.6638;
+
+    private static final Map<String, WeightUnit> BY_LABEL = new HashMap<>();
+    static {
+        for (WeightUnit unit : values()) BY_LABEL.put(unit.label, unit);
+    }
+
+    private final String label;
+    private final double lalPerUnit;
+
+    WeightUnit(String label, double lalPerUnit) {
+        this.label = label;
+        this.lalPerUnit = lalPerUnit;
+    }
+
+    /** "Lal", "Tola", "Gram" - as stored on InvoiceItem.weightUnit and shown in the unit combo. */
+    public String getLabel() {
+        return label;
+    }
+
+    public double toLal(double weight) {
+        return weight * lalPerUnit;
+    }
+
+    public double fromLal(double lal) {
+        return lal / lalPerUnit;
+    }
+
+    /** Unknown or missing labels are Lal, which is what items were entered in before units existed. */
+    public static WeightUnit of(String label) {
+        return label == null ? LAL : BY_LABEL.getOrDefault(label, LAL);
+    }
+
+    public static String[] labels() {
+        WeightUnit[] units = values();
+        String[] labels = new String[units.length];
+        for (int i = 0; i < units.length; i++) labels[i] = units[i].label;
+        return labels;
+    }
+}
@@ -0,0 +1,13 @@
+package com.gorkha.gorkhajewellery.repository;
+
+import com.gorkha.gorkhajewellery.model.Customer;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface CustomerRepository extends JpaRepository<Customer, String> {
+
+    // Customers saved since then - by any till (CustomerService poll)
+    List<Customer> findByLastVisitGreaterThanEqual(LocalDate since);
+}
@@ -0,0 +1,18 @@
+package com.gorkha.gorkhajewellery.repository;
+
+import com.gorkha.gorkhajewellery.model.GoldRate;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface GoldRateRepository extends JpaRepository<GoldRate, Long> {
+
+    // The rate in force at that time (a later, future-dated one does not count)
+    Optional<GoldRate> findTopByPurityAndEffectiveFromLessThanEqualOrderByEffectiveFromDesc(String purity, LocalDateTime when);
+
+    List<GoldRate> findByIdGreaterThan(Long id);
+
+    Optional<GoldRate> findByPurityAndEffectiveFrom(String purity, LocalDateTime effectiveFrom);
+}
@@ -0,0 +1,15 @@
+package com.gorkha.gorkhajewellery.repository;
+
+import com.gorkha.gorkhajewellery.model.InvoiceCounter;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+
+import java.util.Optional;
+
+public interface InvoiceCounterRepository extends JpaRepository<InvoiceCounter, String> {
+
+    // SELECT ... FOR UPDATE: a second counter saving at the same moment waits for this transaction
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<InvoiceCounter> findByFinancialYear(String financialYear);
+}
@@ -1,12 +1,86 @@
 package com.gorkha.gorkhajewellery.repository;
 
 import com.gorkha.gorkhajewellery.model.Invoice;
+import com.gorkha.gorkhajewellery.model.InvoiceExportRow;
+import com.gorkha.gorkhajewellery.model.InvoiceSummary;
+import com.gorkha.gorkhajewellery.model.ItemExportRow;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
 
-    // This magic method creates a search query automatically
-    List<Invoice> findByCustomerNameContainingIgnoreCase(String customerName);
+    // --- Sales History (keyset pagination, newest first) ---
+    // Pass PageRequest.of(0, size): the offset is always 0, the "where" clause does the paging.
+
+    @Query("select new com.gorkha.gorkhajewellery.model.InvoiceSummary(i.id, i.date, i.invoiceNumber, i.customerName, i.grandTotal) " +
+            "from Invoice i order by i.date desc, i.id desc")
+    List<InvoiceSummary> findLatestSummaries(Pageable page);
+
+    @Query("select new com.gorkha.gorkhajewellery.model.InvoiceSummary(i.id, i.date, i.invoiceNumber, i.customerName, i.grandTotal) " +
+            "from Invoice i where i.date < :date or (i.date = :date and i.id < :id) " +
+            "order by i.date desc, i.id desc")
+    List<InvoiceSummary> findSummariesBefore(@Param("date") LocalDate date, @Param("id") Long id, Pageable page);
+
+    // --- Search ---
+    // Patterns are "prefix%" (see InvoiceSearchService) so H2 can range-scan the index instead of the whole table.
+    // Each returns its newest matches (same order as Sales History), so merging the three keeps the newest overall.
+
+    @Query("select new com.gorkha.gorkhajewellery.model.InvoiceSummary(i.id, i.date, i.invoiceNumber, i.customerName, i.grandTotal) " +
+            "from Invoice i where i.customerSearchKey like :pattern escape '\\' order by i.date desc, i.id desc")
+    List<InvoiceSummary> searchByCustomerPrefix(@Param("pattern") String pattern, Pageable page);
+
+    @Query("select new com.gorkha.gorkhajewellery.model.InvoiceSummary(i.id, i.date, i.invoiceNumber, i.customerName, i.grandTotal) " +
+            "from Invoice i where i.phoneDigits like :pattern escape '\\' order by i.date desc, i.id desc")
+    List<InvoiceSummary> searchByPhonePrefix(@Param("pattern") String pattern, Pageable page);
+
+    @Query("select new com.gorkha.gorkhajewellery.model.InvoiceSummary(i.id, i.date, i.invoiceNumber, i.customerName, i.grandTotal) " +
+            "from Invoice i where i.invoiceNumber like :pattern escape '\\' order by i.date desc, i.id desc")
+    List<InvoiceSummary> searchByInvoiceNumberPrefix(@Param("pattern") String pattern, Pageable page);
+
+    // Full invoice (with items) for PDF / reprint
+    @Query("select distinct i from Invoice i left join fetch i.items where i.id = :id")
+    Optional<Invoice> findWithItemsById(@Param("id") Long id);
+
+    // --- Date range, in chunks (batch export) ---
+
+    long countByDateBetween(LocalDate from, LocalDate to);
+
+    @Query("select i.id from Invoice i where i.date between :from and :to and i.id > :afterId order by i.id")
+    List<Long> findIdsInRange(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                              @Param("afterId") long afterId, Pageable page);
+
+    @Query("select i.id from Invoice i where i.id > :afterId order by i.id")
+    List<Long> findIdsAfter(@Param("afterId") long afterId, Pageable page);
+
+    @Query("select distinct i from Invoice i left join fetch i.items where i.id in :ids order by i.id")
+    List<Invoice> findAllWithItemsByIdIn(@Param("ids") List<Long> ids);
+
+    // --- CSV export (streamed row by row - call inside a read-only transaction and close the stream) ---
+
+    @Query("select count(it) from Invoice i join i.items it where i.date between :from and :to")
+    long countItemsInRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.gorkha.gorkhajewellery.model.InvoiceExportRow(i.id, i.invoiceNumber, i.date, i.customerName, " +
+            "i.customerPhone, i.soldBy, i.subTotal, i.oldGoldAmount, i.gstPercent, i.gstAmount, i.discountAmount, " +
+            "i.grandTotal, i.advancePayment, i.balanceDue) " +
+            "from Invoice i where i.date between :from and :to order by i.date, i.id")
+    Stream<InvoiceExportRow> streamInvoiceRows(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.gorkha.gorkhajewellery.model.ItemExportRow(i.invoiceNumber, i.date, it.description, it.purity, " +
+            "it.netWeightLal, it.wastageLal, it.totalWeightLal, it.wages, it.makingCharge, it.stoneCost, it.lineTotal) " +
+            "from Invoice i join i.items it where i.date between :from and :to order by i.date, i.id, it.id")
+    Stream<ItemExportRow> streamItemRows(@Param("from") LocalDate from, @Param("to") LocalDate to);
 }
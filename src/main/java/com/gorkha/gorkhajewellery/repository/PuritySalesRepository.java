@@ -0,0 +1,12 @@
+package com.gorkha.gorkhajewellery.repository;
+
+import com.gorkha.gorkhajewellery.model.DailyPuritySales;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+public interface PuritySalesRepository extends JpaRepository<DailyPuritySales, Long> {
+
+    Optional<DailyPuritySales> findByDateAndPurity(LocalDate date, String purity);
+}
@@ -0,0 +1,75 @@
+package com.gorkha.gorkhajewellery.repository;
+
+import com.gorkha.gorkhajewellery.model.DailySales;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Reads and maintains the sales rollup tables (DailySales, DailyPuritySales, DailyStaffSales).
+ * Reports only ever read these - never Invoice/InvoiceItem.
+ */
+public interface SalesRollupRepository extends JpaRepository<DailySales, LocalDate> {
+
+    List<DailySales> findByDateBetweenOrderByDate(LocalDate from, LocalDate to);
+
+    @Query("select year(d.date) as year, month(d.date) as month, sum(d.invoiceCount) as invoiceCount, " +
+            "sum(d.subTotalCents) as subTotalCents, sum(d.oldGoldCents) as oldGoldCents, sum(d.discountCents) as discountCents, " +
+            "sum(d.gstCents) as gstCents, sum(d.grandTotalCents) as grandTotalCents " +
+            "from DailySales d where d.date between :from and :to " +
+            "group by year(d.date), month(d.date) order by year(d.date), month(d.date)")
+    List<MonthRow> sumByMonth(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("select p.purity as purity, sum(p.weightLal) as weightLal, sum(p.amountCents) as amountCents " +
+            "from DailyPuritySales p where p.date between :from and :to group by p.purity order by p.purity")
+    List<PurityRow> sumByPurity(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("select s.soldBy as soldBy, sum(s.invoiceCount) as invoiceCount, sum(s.grandTotalCents) as grandTotalCents " +
+            "from DailyStaffSales s where s.date between :from and :to group by s.soldBy order by s.soldBy")
+    List<StaffRow> sumByStaff(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // --- Backfill ---
+
+    @Modifying
+    @Query("delete from DailyPuritySales")
+    void deleteAllPuritySales();
+
+    @Modifying
+    @Query("delete from DailyStaffSales")
+    void deleteAllStaffSales();
+
+    // Marker row (V13): present once the rollups hold every invoice
+    @Query(value = "select count(*) from rollup_backfill", nativeQuery = true)
+    long countBackfillMarkers();
+
+    @Modifying
+    @Query(value = "merge into rollup_backfill (id, completed_at) key (id) values (1, current_timestamp)", nativeQuery = true)
+    void markBackfilled();
+
+    interface MonthRow {
+        int getYear();
+        int getMonth();
+        long getInvoiceCount();
+        long getSubTotalCents();
+        long getOldGoldCents();
+        long getDiscountCents();
+        long getGstCents();
+        long getGrandTotalCents();
+    }
+
+    interface PurityRow {
+        String getPurity();
+        double getWeightLal();
+        long getAmountCents();
+    }
+
+    interface StaffRow {
+        String getSoldBy();
+        long getInvoiceCount();
+        long getGrandTotalCents();
+    }
+}
@@ -0,0 +1,12 @@
+package com.gorkha.gorkhajewellery.repository;
+
+import com.gorkha.gorkhajewellery.model.DailyStaffSales;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+public interface StaffSalesRepository extends JpaRepository<DailyStaffSales, Long> {
+
+    Optional<DailyStaffSales> findByDateAndSoldBy(LocalDate date, String soldBy);
+}
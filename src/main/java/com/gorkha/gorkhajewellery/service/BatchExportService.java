@@ -0,0 +1,93 @@
+package com.gorkha.gorkhajewellery.service;
+
+import com.gorkha.gorkhajewellery.model.Invoice;
+import com.gorkha.gorkhajewellery.repository.InvoiceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * BULK EXPORT: Re-prints every invoice in a date range.
+ * Invoices are read in chunks of CHUNK_SIZE and each chunk is rendered in parallel (one Document per thread),
+ * so memory stays bounded no matter how many invoices are in the range.
+ */
+@Slf4j
+@Service
+public class BatchExportService {
+
+    private static final int CHUNK_SIZE = 50;
+
+    @Autowired private InvoiceRepository invoiceRepository;
+    @Autowired private PdfService pdfService;
+
+    public interface ProgressListener {
+        void onProgress(long done, long total);
+    }
+
+    /**
+     * @param merged true = one combined PDF, false = one file per invoice
+     * @return number of invoices exported
+     */
+    public long export(LocalDate from, LocalDate to, Path outputDir, boolean merged, ProgressListener progress) throws Exception {
+        Files.createDirectories(outputDir);
+        long total = invoiceRepository.countByDateBetween(from, to);
+        if (total == 0) return 0;
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        try (ExecutorService renderPool = Executors.newFixedThreadPool(threads)) {
+            if (!merged) {
+                return exportChunks(from, to, renderPool, total, progress, new PdfFileSink(outputDir));
+            }
+            try (PdfMergeSink sink = new PdfMergeSink(outputDir.resolve("Invoices_" + from + "_" + to + ".pdf"))) {
+                return exportChunks(from, to, renderPool, total, progress, sink);
+            }
+        }
+    }
+
+    private long exportChunks(LocalDate from, LocalDate to, ExecutorService renderPool,
+                              long total, ProgressListener progress, PdfSink sink) throws Exception {
+        long done = 0;
+        long afterId = 0;
+        while (true) {
+            // 1. Next chunk of ids (keyset on id), then the invoices with their items in one query
+            List<Long> ids = invoiceRepository.findIdsInRange(from, to, afterId, PageRequest.of(0, CHUNK_SIZE));
+            if (ids.isEmpty()) break;
+            afterId = ids.get(ids.size() - 1);
+            List<Invoice> invoices = invoiceRepository.findAllWithItemsByIdIn(ids);
+
+            // 2. Render the chunk in parallel
+            List<Future<byte[]>> rendered = new ArrayList<>(invoices.size());
+            for (Invoice invoice : invoices) {
+                rendered.add(renderPool.submit(() -> pdfService.renderToBytes(invoice, PdfService.RenderSource.EXPORT)));
+            }
+
+            // 3. Write in id order (keeps the merged document sorted)
+            for (int i = 0; i < invoices.size(); i++) {
+                sink.accept(invoices.get(i), await(rendered.get(i)));
+                progress.onProgress(++done, total);
+            }
+        }
+        log.info("Exported {} invoices ({} to {})", done, from, to);
+        return done;
+    }
+
+    private byte[] await(Future<byte[]> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : new IOException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.gorkha.gorkhajewellery.service;
+
+import com.gorkha.gorkhajewellery.model.InvoiceExportRow;
+import com.gorkha.gorkhajewellery.model.ItemExportRow;
+import com.gorkha.gorkhajewellery.repository.InvoiceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * CSV EXPORT: Invoices and line items for a date range, for the accountant's spreadsheet.
+ *
+ * Rows are streamed straight from the database cursor into the file (fetch size 500, DTO rows only -
+ * nothing piles up in the persistence context), so memory stays flat for millions of items.
+ *
+ * Writes two files:
+ *   Invoices_<from>_<to>.csv       one row per invoice
+ *   InvoiceItems_<from>_<to>.csv   one row per line item (with its invoice number and date)
+ */
+@Slf4j
+@Service
+public class CsvExportService {
+
+    private static final int PROGRESS_EVERY = 500; // Rows between progress callbacks
+
+    @Autowired private InvoiceRepository invoiceRepository;
+
+    public record Result(Path invoicesFile, Path itemsFile, long invoices, long items) {}
+
+    /** Progress counts invoice rows first, then item rows, against their combined total. */
+    @Transactional(readOnly = true) // The streams are only open while the transaction is
+    public Result export(LocalDate from, LocalDate to, Path outputDir, BatchExportService.ProgressListener progress) throws IOException {
+        Files.createDirectories(outputDir);
+        long total = invoiceRepository.countByDateBetween(from, to) + invoiceRepository.countItemsInRange(from, to);
+        long[] done = {0};
+
+        // 1. Invoices
+        Path invoicesFile = outputDir.resolve("Invoices_" + from + "_" + to + ".csv");
+        long invoices;
+        try (Stream<InvoiceExportRow> rows = invoiceRepository.streamInvoiceRows(from, to)) {
+            invoices = writeCsv(invoicesFile,
+                    "Invoice No,Date,Customer,Phone,Sold By,Subtotal,Old Gold,GST %,GST,Discount,Grand Total,Advance,Balance",
+                    rows.iterator(), (row, out) -> {
+                        out.append(csv(row.invoiceNumber())).append(',').append(String.valueOf(row.date())).append(',')
+                                .append(csv(row.customerName())).append(',').append(csv(row.customerPhone())).append(',')
+                                .append(csv(row.soldBy())).append(',').append(row.subTotal().toString()).append(',')
+                                .append(row.oldGoldAmount().toString()).append(',').append(String.valueOf(row.gstPercent())).append(',')
+                                .append(row.gstAmount().toString()).append(',').append(row.discountAmount().toString()).append(',')
+                                .append(row.grandTotal().toString()).append(',').append(row.advancePayment().toString()).append(',')
+                                .append(row.balanceDue().toString());
+                    }, done, total, progress);
+        }
+
+        // 2. Line items
+        Path itemsFile = outputDir.resolve("InvoiceItems_" + from + "_" + to + ".csv");
+        long items;
+        try (Stream<ItemExportRow> rows = invoiceRepository.streamItemRows(from, to)) {
+            items = writeCsv(itemsFile,
+                    "Invoice No,Date,Description,Purity,Net Wt (Lal),Wastage (Lal),Total Wt (Lal),Wages,Making,Stone,Line Total",
+                    rows.iterator(), (row, out) -> {
+                        out.append(csv(row.invoiceNumber())).append(',').append(String.valueOf(row.date())).append(',')
+                                .append(csv(row.description())).append(',').append(csv(row.purity())).append(',')
+                                .append(String.valueOf(row.netWeightLal())).append(',').append(String.valueOf(row.wastageLal())).append(',')
+                                .append(String.valueOf(row.totalWeightLal())).append(',').append(row.wages().toString()).append(',')
+                                .append(row.makingCharge().toString()).append(',').append(row.stoneCost().toString()).append(',').append(row.lineTotal().toString());
+                    }, done, total, progress);
+        }
+
+        progress.onProgress(total, total);
+        log.info("CSV export {} to {}: {} invoices, {} items", from, to, invoices, items);
+        return new Result(invoicesFile, itemsFile, invoices, items);
+    }
+
+    private interface RowWriter<T> {
+        void write(T row, Writer out) throws IOException;
+    }
+
+    // Temp file + rename, like PdfFileSink: Excel never opens a half-written export
+    private <T> long writeCsv(Path target, String header, Iterator<T> rows, RowWriter<T> rowWriter,
+                              long[] done, long total, BatchExportService.ProgressListener progress) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), "export_", ".csv.tmp");
+        long count = 0;
+        try {
+            try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                out.write('\uFEFF'); // BOM so Excel reads UTF-8 names correctly
+                out.write(header);
+                out.write("\r\n");
+                while (rows.hasNext()) {
+                    rowWriter.write(rows.next(), out);
+                    out.write("\r\n");
+                    count++;
+                    if (++done[0] % PROGRESS_EVERY == 0) progress.onProgress(done[0], total);
+                }
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return count;
+    }
+
+    // RFC 4180: quote only when needed, double any quotes inside
+    static String csv(String value) {
+        if (value == null) return "";
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        return quote ? '"' + value.replace("\"", "\"\"") + '"' : value;
+    }
+}
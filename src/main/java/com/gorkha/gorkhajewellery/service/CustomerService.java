@@ -0,0 +1,143 @@
+package com.gorkha.gorkhajewellery.service;
+
+import com.gorkha.gorkhajewellery.model.Customer;
+import com.gorkha.gorkhajewellery.model.Invoice;
+import com.gorkha.gorkhajewellery.repository.CustomerRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * CUSTOMER LOOKUP: Repeat customers by name or phone prefix, for autocomplete.
+ *
+ * All customers are kept in memory in two sorted maps (a prefix is just a sub-range of the keys),
+ * so a lookup never touches the database. Loaded once at startup (warmUp) and updated on every save.
+ *
+ * Other tills (profile "client"/"server") save customers too: every POLL_SECONDS the customers whose
+ * last_visit is on or after the day of the previous poll are read again - today's customers, a few dozen
+ * rows. (An invoice dated in the past on another till shows up after the next restart.)
+ */
+@Slf4j
+@Service
+public class CustomerService {
+
+    private static final long POLL_SECONDS = 30;
+
+    @Autowired private CustomerRepository customerRepository;
+
+    // Sorted keys -> prefix search is a range scan. Thread-safe: read on the FX thread, updated from saves.
+    private final ConcurrentSkipListMap<String, Customer> byName = new ConcurrentSkipListMap<>();  // "name\0digits"
+    private final ConcurrentSkipListMap<String, Customer> byPhone = new ConcurrentSkipListMap<>(); // digits
+    private volatile boolean loaded;
+    private LocalDate pollFrom; // Poll thread only: the day of the previous poll
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "gj-customer-refresh");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /** Loads all customers into memory and starts picking up other tills' customers. Called in the background once the database is up. */
+    @Transactional(readOnly = true)
+    public synchronized void warmUp() {
+        if (loaded) return;
+        pollFrom = LocalDate.now(); // Before the load: today's rows are read again by the first poll
+        customerRepository.findAll().forEach(this::index);
+        loaded = true;
+        log.info("Customer index ready: {} customers", byPhone.size());
+        scheduler.scheduleWithFixedDelay(this::poll, POLL_SECONDS, POLL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    // Re-reading a customer is harmless - index() keeps whichever version is newer
+    private void poll() {
+        try {
+            LocalDate from = pollFrom;
+            pollFrom = LocalDate.now();
+            customerRepository.findByLastVisitGreaterThanEqual(from).forEach(this::index);
+        } catch (Exception e) {
+            log.warn("Could not refresh customers from the other tills", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    // ==========================================
+    // LOOKUP (in memory)
+    // ==========================================
+
+    public List<Customer> findByNamePrefix(String text, int limit) {
+        String key = Invoice.normalizeName(text);
+        return key == null || key.isEmpty() ? List.of() : prefix(byName, key, limit);
+    }
+
+    public List<Customer> findByPhonePrefix(String text, int limit) {
+        String digits = Invoice.normalizePhone(text);
+        return digits == null || digits.isEmpty() ? List.of() : prefix(byPhone, digits, limit);
+    }
+
+    private List<Customer> prefix(ConcurrentSkipListMap<String, Customer> index, String prefix, int limit) {
+        ConcurrentNavigableMap<String, Customer> range = index.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        List<Customer> results = new ArrayList<>(limit);
+        for (Customer c : range.values()) {
+            results.add(c);
+            if (results.size() == limit) break;
+        }
+        return results;
+    }
+
+    // ==========================================
+    // UPDATING (called from InvoiceService.save)
+    // ==========================================
+
+    /** Creates or refreshes the customer from a saved invoice. The index is updated once the save commits. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Invoice invoice) {
+        String digits = Invoice.normalizePhone(invoice.getCustomerPhone());
+        if (digits == null || digits.isEmpty()) return; // Walk-in without a phone number
+
+        Customer customer = customerRepository.findById(digits).orElseGet(() -> new Customer(digits));
+        customer.setName(invoice.getCustomerName());
+        customer.setPhone(invoice.getCustomerPhone());
+        customer.setAddress(invoice.getCustomerAddress());
+        customer.setLastVisit(invoice.getDate());
+        Customer saved = customerRepository.save(customer);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                index(saved);
+            }
+        });
+    }
+
+    // Saves (after commit) and the poll both index - one at a time, and an older version never replaces a newer one
+    private synchronized void index(Customer customer) {
+        Customer previous = byPhone.get(customer.getPhoneDigits());
+        if (previous != null && version(previous) > version(customer)) return;
+        byPhone.put(customer.getPhoneDigits(), customer);
+        if (previous != null) byName.remove(nameKey(previous)); // Name may have changed
+        byName.put(nameKey(customer), customer);
+    }
+
+    private static long version(Customer customer) {
+        return customer.getVersion() == null ? 0 : customer.getVersion();
+    }
+
+    private static String nameKey(Customer customer) {
+        String name = Invoice.normalizeName(customer.getName());
+        return (name == null ? "" : name) + '\0' + customer.getPhoneDigits();
+    }
+}
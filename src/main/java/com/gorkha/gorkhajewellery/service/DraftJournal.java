@@ -0,0 +1,323 @@
+package com.gorkha.gorkhajewellery.service;
+
+import com.gorkha.gorkhajewellery.model.InvoiceDraft;
+import com.gorkha.gorkhajewellery.model.Money;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * DRAFT JOURNAL: The invoice being typed survives a crash or power cut.
+ *
+ * Every change to the form appends a snapshot of it to drafts/draft.journal (in app.db.dir); saving or
+ * starting a new invoice appends a "closed" marker for that draft. Each record carries its draft's id:
+ * the next invoice can be typed while the last one is still saving, so a marker only closes its own draft.
+ * At the next start, the newest draft that was never closed is handed back to the form (recover).
+ *
+ * The FX thread only queues the records. One writer thread appends, per draft, the newest queued one
+ * (older snapshots of the same draft are superseded and skipped) and syncs them to disk, at most once
+ * every SYNC_INTERVAL_MS - so at most that much typing can be lost, however fast the user types.
+ *
+ * Record on disk: [length int][CRC32 int][payload]. A record cut short by a crash fails its length
+ * or CRC check; recovery stops there and the tail is truncated.
+ */
+@Slf4j
+@Service
+public class DraftJournal {
+
+    private static final long SYNC_INTERVAL_MS = 250;
+    private static final long COMPACT_AT_BYTES = 1 << 20; // Start a new file (when the form is empty) after 1 MB
+    private static final int MAX_RECORD_BYTES = 1 << 20;
+    private static final int FORMAT = 2; // 2: records carry the draft id
+
+    private static final byte SNAPSHOT = 1, SAVED = 2, DISCARDED = 3;
+
+    private record Entry(byte type, long draftId, LocalDateTime at, InvoiceDraft draft) {}
+
+    private final Path file;
+    private final BlockingQueue<Entry> queue = new LinkedBlockingQueue<>();
+    private final AtomicLong lastDraftId = new AtomicLong(System.currentTimeMillis()); // Above the last run's ids
+    private FileChannel channel; // Writer thread only, once open
+    private final Set<Long> openDrafts = new HashSet<>(); // Writer thread only: drafts in the file not closed yet
+    private Thread writer;
+    private volatile boolean open;
+    private volatile boolean stopping;
+
+    public DraftJournal(@Value("${app.db.dir}") String dataDir) {
+        this.file = Path.of(dataDir, "drafts", "draft.journal");
+    }
+
+    // ==========================================
+    // CALLED FROM THE FX THREAD (never blocks)
+    // ==========================================
+
+    /** Id for the next invoice typed into the form. */
+    public long newDraftId() {
+        return lastDraftId.incrementAndGet();
+    }
+
+    /** Queues the current form. Ignored until recover() has run. */
+    public void write(InvoiceDraft draft) {
+        if (open) queue.offer(new Entry(SNAPSHOT, draft.id(), draft.savedAt(), draft));
+    }
+
+    /** That invoice was saved - nothing of it to recover any more. */
+    public void markSaved(long draftId) {
+        if (open) queue.offer(new Entry(SAVED, draftId, LocalDateTime.now(), null));
+    }
+
+    /** That invoice was cleared without saving. Its last snapshot stays in the journal file (and the log). */
+    public void markDiscarded(long draftId) {
+        if (open) queue.offer(new Entry(DISCARDED, draftId, LocalDateTime.now(), null));
+    }
+
+    // ==========================================
+    // RECOVERY (startup, background thread)
+    // ==========================================
+
+    /**
+     * Reads the journal, drops an incomplete last record and starts the writer.
+     * A journal that cannot be opened or read is moved aside (draft.journal.unreadable-*) and a new one started.
+     * @return the newest draft left unfinished by the last run, if any (older unfinished ones are closed as discarded)
+     * @throws IOException only if not even a new journal can be created - drafts are not protected this run
+     */
+    public synchronized Optional<InvoiceDraft> recover() throws IOException {
+        if (open) return Optional.empty();
+        Files.createDirectories(file.getParent());
+
+        LinkedHashMap<Long, Entry> unfinished; // Draft id -> its last snapshot, oldest first
+        try {
+            channel = FileChannel.open(file, CREATE, READ, WRITE);
+            unfinished = scan();
+        } catch (IOException e) {
+            log.warn("Draft journal {} could not be read - starting a new one", file, e);
+            if (channel != null) channel.close();
+            if (Files.exists(file)) {
+                Path aside = file.resolveSibling("draft.journal.unreadable-" + System.currentTimeMillis());
+                Files.move(file, aside);
+                log.warn("The unreadable draft journal was kept as {}", aside);
+            }
+            channel = FileChannel.open(file, CREATE, READ, WRITE);
+            unfinished = new LinkedHashMap<>();
+        }
+
+        Entry last = null;
+        for (Entry entry : unfinished.values()) {
+            if (last != null) { // Only one form to put it back into - the newest wins
+                log.warn("Unsaved invoice draft from {} not recovered: {} ({} lines)",
+                        last.at(), last.draft().customerName(), last.draft().lines().size());
+                queue.offer(new Entry(DISCARDED, last.draftId(), LocalDateTime.now(), null));
+            }
+            last = entry;
+            openDrafts.add(entry.draftId());
+        }
+
+        writer = new Thread(this::writeLoop, "gj-draft-journal");
+        writer.setDaemon(true);
+        writer.start();
+        open = true;
+
+        if (last == null) return Optional.empty();
+        log.info("Recovering unsaved invoice draft from {} ({} lines)", last.at(), last.draft().lines().size());
+        return Optional.of(last.draft());
+    }
+
+    // Reads up to the last complete record (cutting off anything after it) and returns the drafts never closed
+    private LinkedHashMap<Long, Entry> scan() throws IOException {
+        LinkedHashMap<Long, Entry> unfinished = new LinkedHashMap<>();
+        long end = 0; // End of the last complete record
+        ByteBuffer header = ByteBuffer.allocate(8);
+        while (true) {
+            header.clear();
+            if (read(header, end) < 8) break;
+            header.flip();
+            int length = header.getInt();
+            int crc = header.getInt();
+            if (length <= 0 || length > MAX_RECORD_BYTES) break;
+
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            if (read(payload, end + 8) < length || crc(payload.array()) != crc) break;
+            Entry entry;
+            try {
+                entry = decode(payload.array());
+            } catch (IOException | RuntimeException e) { // Passed the CRC but not written by this format
+                break;
+            }
+            lastDraftId.accumulateAndGet(entry.draftId(), Math::max);
+            unfinished.remove(entry.draftId());
+            if (entry.type() == SNAPSHOT) unfinished.put(entry.draftId(), entry); // Now the newest
+
+            end += 8 + length;
+        }
+
+        long size = channel.size();
+        if (end < size) {
+            log.warn("Draft journal: dropping {} bytes of an incomplete write", size - end);
+            channel.truncate(end);
+        }
+        channel.position(end);
+        return unfinished;
+    }
+
+    private int read(ByteBuffer buffer, long position) throws IOException {
+        int total = 0;
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, position + total);
+            if (n < 0) break;
+            total += n;
+        }
+        return total;
+    }
+
+    // ==========================================
+    // WRITER THREAD
+    // ==========================================
+
+    // Not stopped by interrupt: an interrupt during a FileChannel write would close the channel
+    private void writeLoop() {
+        while (!stopping) {
+            try {
+                Entry entry = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (entry == null) continue;
+                appendQueued(entry);
+                Thread.sleep(SYNC_INTERVAL_MS); // Changes made meanwhile go into the next write
+            } catch (InterruptedException e) {
+                return;
+            } catch (IOException e) {
+                log.warn("Could not write the invoice draft", e);
+            }
+        }
+    }
+
+    // An entry replaces the queued ones of its own draft only, so each draft's newest entry is written
+    private void appendQueued(Entry first) throws IOException {
+        LinkedHashMap<Long, Entry> newest = new LinkedHashMap<>(); // Draft id -> newest entry, in queue order
+        for (Entry entry = first; entry != null; entry = queue.poll()) {
+            newest.remove(entry.draftId());
+            newest.put(entry.draftId(), entry);
+        }
+
+        for (Entry entry : newest.values()) {
+            byte[] payload = encode(entry);
+            ByteBuffer record = ByteBuffer.allocate(8 + payload.length);
+            record.putInt(payload.length).putInt(crc(payload)).put(payload).flip();
+            while (record.hasRemaining()) channel.write(record);
+            if (entry.type() == SNAPSHOT) openDrafts.add(entry.draftId());
+            else openDrafts.remove(entry.draftId());
+        }
+        channel.force(false); // One sync for all the edits merged into this write
+
+        if (openDrafts.isEmpty() && channel.size() > COMPACT_AT_BYTES) compact();
+    }
+
+    // No draft open in the file: keep the old file as draft.journal.old and start a new one
+    private void compact() throws IOException {
+        channel.close();
+        Files.move(file, file.resolveSibling("draft.journal.old"), StandardCopyOption.REPLACE_EXISTING);
+        channel = FileChannel.open(file, CREATE, READ, WRITE);
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (!open) return;
+        open = false;
+        stopping = true;
+        try {
+            writer.join(2000);
+            if (writer.isAlive()) return; // Stuck on the disk - don't write over it
+            Entry last = queue.poll();
+            if (last != null) appendQueued(last); // Whatever came in during the last sync interval
+            channel.close();
+        } catch (Exception e) {
+            log.warn("Could not close the draft journal", e);
+        }
+    }
+
+    // ==========================================
+    // ENCODING
+    // ==========================================
+
+    private static byte[] encode(Entry entry) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(FORMAT);
+        out.writeByte(entry.type());
+        out.writeLong(entry.draftId());
+        out.writeUTF(entry.at().toString());
+        if (entry.type() == SNAPSHOT) {
+            InvoiceDraft d = entry.draft();
+            writeText(out, d.customerName());
+            writeText(out, d.customerPhone());
+            writeText(out, d.customerAddress());
+            writeText(out, d.soldBy());
+            writeText(out, d.oldGold());
+            writeText(out, d.discount());
+            writeText(out, d.gstPercent());
+            writeText(out, d.advance());
+            out.writeInt(d.lines().size());
+            for (InvoiceDraft.Line line : d.lines()) {
+                writeText(out, line.description());
+                writeText(out, line.category());
+                writeText(out, line.purity());
+                writeText(out, line.weightUnit());
+                out.writeDouble(line.netWeight());
+                out.writeDouble(line.wastageLal());
+                out.writeLong(line.wages().getCents());
+                out.writeLong(line.stoneCost().getCents());
+            }
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static Entry decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        if (in.readByte() != FORMAT) throw new IOException("Unknown draft format");
+        byte type = in.readByte();
+        long draftId = in.readLong();
+        LocalDateTime at = LocalDateTime.parse(in.readUTF());
+        if (type != SNAPSHOT) return new Entry(type, draftId, at, null);
+
+        String name = readText(in), phone = readText(in), address = readText(in), soldBy = readText(in);
+        String oldGold = readText(in), discount = readText(in), gst = readText(in), advance = readText(in);
+        List<InvoiceDraft.Line> lines = new ArrayList<>();
+        for (int i = in.readInt(); i > 0; i--) {
+            lines.add(new InvoiceDraft.Line(readText(in), readText(in), readText(in), readText(in),
+                    in.readDouble(), in.readDouble(), Money.ofCents(in.readLong()), Money.ofCents(in.readLong())));
+        }
+        InvoiceDraft draft = new InvoiceDraft(draftId, at, name, phone, address, soldBy, oldGold, discount, gst, advance, lines);
+        return new Entry(type, draftId, at, draft);
+    }
+
+    private static void writeText(DataOutputStream out, String text) throws IOException {
+        out.writeBoolean(text != null);
+        if (text != null) out.writeUTF(text);
+    }
+
+    private static String readText(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static int crc(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,292 @@
+package com.gorkha.gorkhajewellery.service;
+
+import com.gorkha.gorkhajewellery.model.GoldRate;
+import com.gorkha.gorkhajewellery.model.Money;
+import com.gorkha.gorkhajewellery.repository.GoldRateRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * RATE HISTORY: Every rate of every purity over time, for "what was the rate at time T".
+ *
+ * The gold_rate table is the record; all of it is also kept in memory as one sorted map per purity
+ * (effectiveFrom -> rate), so rateAt() is a floorEntry lookup and never touches the database.
+ * Loaded once at startup (warmUp) and updated as rates are typed (SettingsService) or imported.
+ *
+ * DROP FOLDER: CSV files put in app.rates.import-dir are imported every POLL_SECONDS, then moved
+ * to imported/ (or failed/, see the log). A file is only imported once its size and time are the same
+ * as at the previous poll - not while it is still being copied in. One rate per line, header optional:
+ *
+ *   date,purity,rate
+ *   2026-10-18,22K,1340.00          <- from the start of that day
+ *   2026-10-18T14:30,24K,1432.50    <- from that time
+ *
+ * When the rate in force for a purity changes (import, another till, a dated rate coming into
+ * effect), the rate listeners are told so the counter screen can show it.
+ */
+@Slf4j
+@Service
+public class GoldRateService {
+
+    private static final long POLL_SECONDS = 30;
+
+    @Autowired private GoldRateRepository goldRateRepository;
+    @Autowired @Lazy private TransactionTemplate transactionTemplate; // Needs Hibernate - resolved on the first import
+
+    private final List<String> purities;
+    private final Path importDir;
+
+    // Purity -> (effectiveFrom -> rate). Read from any thread, written from imports and rate flushes.
+    private final Map<String, ConcurrentSkipListMap<LocalDateTime, Money>> history = new ConcurrentHashMap<>();
+    private final Map<String, Money> published = new ConcurrentHashMap<>(); // Last rate sent to the listeners
+    private final List<BiConsumer<String, Money>> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong lastSeenId = new AtomicLong(); // Highest row id in memory
+    private long rescanFrom; // Poll thread only: lastSeenId at the previous poll
+    private final Map<Path, FileState> dropFolderState = new HashMap<>(); // Poll thread only: CSV files seen at the previous poll
+    private volatile boolean loaded;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "gj-rate-import");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public GoldRateService(@Value("${app.rates.purities:22K,24K}") List<String> purities,
+                           @Value("${app.rates.import-dir}") String importDir) {
+        this.purities = List.copyOf(purities);
+        this.importDir = Path.of(importDir);
+    }
+
+    /** Purities sold at the counter, in display order. The first one is the default for new lines. */
+    public List<String> getPurities() {
+        return purities;
+    }
+
+    /** Called with (purity, rate) on a background thread whenever the rate in force changes. */
+    public void addRateListener(BiConsumer<String, Money> listener) {
+        listeners.add(listener);
+    }
+
+    /** Loads the history into memory and starts watching the drop folder. Called in the background at startup. */
+    public synchronized void warmUp() {
+        if (loaded) return;
+        List<GoldRate> all = goldRateRepository.findAll();
+        all.forEach(this::index);
+        loaded = true;
+        log.info("Rate history ready: {} rates", all.size());
+        scheduler.scheduleWithFixedDelay(this::poll, 0, POLL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    // ==========================================
+    // LOOKUP (in memory)
+    // ==========================================
+
+    /** The rate in force for {@code purity} at {@code when}, or null if there was none yet. */
+    public Money rateAt(String purity, LocalDateTime when) {
+        NavigableMap<LocalDateTime, Money> rates = history.get(purity);
+        if (rates == null) return null;
+        Map.Entry<LocalDateTime, Money> entry = rates.floorEntry(when);
+        return entry == null ? null : entry.getValue();
+    }
+
+    // ==========================================
+    // RECORDING
+    // ==========================================
+
+    /**
+     * A rate typed at the counter: in force on this till from now. Only in memory - SettingsService
+     * records it in the table when it flushes (see record).
+     */
+    public void setCurrentRate(String purity, Money rate) {
+        LocalDateTime now = LocalDateTime.now();
+        if (rate.equals(rateAt(purity, now))) return;
+        history.computeIfAbsent(purity, p -> new ConcurrentSkipListMap<>()).put(now, rate);
+        publishCurrentRates();
+    }
+
+    /** Adds a rate typed at the counter (from SettingsService.flush) unless it equals the one in force at {@code when}. */
+    public void record(String purity, Money rate, LocalDateTime when) {
+        boolean unchanged = goldRateRepository.findTopByPurityAndEffectiveFromLessThanEqualOrderByEffectiveFromDesc(purity, when)
+                .map(last -> rate.equals(last.getRatePerUnit()))
+                .orElse(false);
+        if (unchanged) return;
+        index(goldRateRepository.save(newRate(purity, rate, when)));
+    }
+
+    /**
+     * Imports one CSV file in one transaction: either every line or none.
+     * A line for a time that already has a rate replaces that rate (one rate per purity and time, see V12).
+     * @return the number of rates imported
+     */
+    public int importFile(Path file) throws IOException {
+        List<GoldRate> parsed = parse(file);
+        List<GoldRate> saved;
+        try {
+            saved = importRates(parsed);
+        } catch (DataIntegrityViolationException e) {
+            saved = importRates(parsed); // Another till added one of these (purity, time) pairs meanwhile - replace it
+        }
+        saved.forEach(this::index); // Committed
+        return saved.size();
+    }
+
+    private List<GoldRate> importRates(List<GoldRate> parsed) {
+        return transactionTemplate.execute(tx -> {
+            // (purity, time) -> row; a later line for the same pair in the file wins
+            Map<Map.Entry<String, LocalDateTime>, GoldRate> rows = new LinkedHashMap<>();
+            for (GoldRate rate : parsed) {
+                GoldRate row = rows.computeIfAbsent(Map.entry(rate.getPurity(), rate.getEffectiveFrom()),
+                        pair -> goldRateRepository.findByPurityAndEffectiveFrom(pair.getKey(), pair.getValue())
+                                .orElseGet(() -> newRate(pair.getKey(), rate.getRatePerUnit(), pair.getValue())));
+                row.setRatePerUnit(rate.getRatePerUnit());
+            }
+            return goldRateRepository.saveAll(rows.values());
+        });
+    }
+
+    private List<GoldRate> parse(Path file) throws IOException {
+        List<GoldRate> rates = new ArrayList<>();
+        int lineNumber = 0;
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            lineNumber++;
+            line = line.replace("\uFEFF", "").trim(); // Excel's BOM
+            if (line.isEmpty() || line.startsWith("#")) continue;
+
+            String[] fields = line.split(",");
+            if (lineNumber == 1 && fields[0].trim().equalsIgnoreCase("date")) continue; // Header
+            if (fields.length < 3) throw new IOException("Line " + lineNumber + ": expected date,purity,rate");
+
+            LocalDateTime when = parseTime(fields[0].trim(), lineNumber);
+            String purity = canonicalPurity(fields[1].trim(), lineNumber);
+            Money rate = Money.parse(fields[2].trim());
+            if (!rate.isPositive()) throw new IOException("Line " + lineNumber + ": invalid rate '" + fields[2].trim() + "'");
+            rates.add(newRate(purity, rate, when));
+        }
+        return rates;
+    }
+
+    private static LocalDateTime parseTime(String text, int lineNumber) throws IOException {
+        try {
+            return text.length() == 10 ? LocalDate.parse(text).atStartOfDay() : LocalDateTime.parse(text);
+        } catch (DateTimeParseException e) {
+            throw new IOException("Line " + lineNumber + ": invalid date '" + text + "' (use 2026-10-18 or 2026-10-18T14:30)");
+        }
+    }
+
+    // "22k" -> "22K", "silver" -> "Silver": the spelling of app.rates.purities
+    private String canonicalPurity(String text, int lineNumber) throws IOException {
+        for (String purity : purities) {
+            if (purity.equalsIgnoreCase(text)) return purity;
+        }
+        throw new IOException("Line " + lineNumber + ": unknown purity '" + text + "' (expected one of " + purities + ")");
+    }
+
+    private static GoldRate newRate(String purity, Money rate, LocalDateTime when) {
+        GoldRate entry = new GoldRate();
+        entry.setPurity(purity);
+        entry.setRatePerUnit(rate);
+        entry.setEffectiveFrom(when);
+        return entry;
+    }
+
+    private void index(GoldRate rate) {
+        history.computeIfAbsent(rate.getPurity(), p -> new ConcurrentSkipListMap<>())
+                .put(rate.getEffectiveFrom(), rate.getRatePerUnit());
+        lastSeenId.accumulateAndGet(rate.getId(), Math::max);
+    }
+
+    // ==========================================
+    // DROP FOLDER
+    // ==========================================
+
+    // Rows saved by other tills. IDENTITY ids are taken at insert, not at commit: a row with a lower id can
+    // commit after a higher one was read. So each poll re-reads everything since the previous poll's
+    // high-water mark; only a transaction left open for a whole poll interval could still be missed.
+    // Re-reading is harmless - index() just puts the same entry again.
+    private void loadNewRates() {
+        long from = rescanFrom;
+        rescanFrom = lastSeenId.get();
+        goldRateRepository.findByIdGreaterThan(from).forEach(this::index);
+    }
+
+    private void poll() {
+        try {
+            loadNewRates();
+            importDropFolder();
+        } catch (Exception e) {
+            log.warn("Rate import failed", e);
+        }
+        publishCurrentRates();
+    }
+
+    private void importDropFolder() throws IOException {
+        if (!Files.isDirectory(importDir)) return;
+
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> csvFiles = Files.newDirectoryStream(importDir, "*.csv")) {
+            csvFiles.forEach(files::add);
+        }
+        Collections.sort(files); // rates_2026-10-17.csv before rates_2026-10-18.csv
+
+        Map<Path, FileState> lastPoll = new HashMap<>(dropFolderState);
+        dropFolderState.clear();
+        for (Path file : files) {
+            FileState state = new FileState(Files.size(file), Files.getLastModifiedTime(file));
+            if (!state.equals(lastPoll.get(file))) { // New, or still being written - look again next poll
+                dropFolderState.put(file, state);
+                continue;
+            }
+            try {
+                int count = importFile(file);
+                log.info("Imported {} rates from {}", count, file.getFileName());
+                moveTo(file, "imported");
+            } catch (Exception e) {
+                log.warn("Could not import rates from {}", file.getFileName(), e);
+                moveTo(file, "failed");
+            }
+        }
+    }
+
+    private record FileState(long size, FileTime modified) {}
+
+    private void moveTo(Path file, String folder) throws IOException {
+        Path dir = Files.createDirectories(importDir.resolve(folder));
+        Files.move(file, dir.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    // Also picks up rates saved by other tills and dated rates whose time has come
+    private synchronized void publishCurrentRates() {
+        LocalDateTime now = LocalDateTime.now();
+        for (String purity : purities) {
+            Money rate = rateAt(purity, now);
+            if (rate == null || rate.equals(published.put(purity, rate))) continue;
+            for (BiConsumer<String, Money> listener : listeners) listener.accept(purity, rate);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,49 @@
+package com.gorkha.gorkhajewellery.service;
+
+import com.gorkha.gorkhajewellery.model.InvoiceCounter;
+import com.gorkha.gorkhajewellery.repository.InvoiceCounterRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.MonthDay;
+
+/**
+ * INVOICE NUMBERS: GJ-2025-26-00001, GJ-2025-26-00002, ... restarting every financial year.
+ *
+ * The counter row is locked and incremented inside the invoice's own transaction, so:
+ *   - two counters saving at the same time get different numbers (the second waits for the lock)
+ *   - a failed save rolls the counter back too - no gaps in the tax invoice sequence
+ */
+@Service
+public class InvoiceNumberService {
+
+    @Autowired private InvoiceCounterRepository counterRepository;
+
+    private final MonthDay yearStart;
+
+    public InvoiceNumberService(@Value("${app.invoice.financial-year-start:04-01}") String yearStart) {
+        this.yearStart = MonthDay.parse("--" + yearStart);
+    }
+
+    /** Takes the next number for the financial year of {@code date}. Must run inside the save transaction. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public String next(LocalDate date) {
+        String year = financialYear(date);
+        InvoiceCounter counter = counterRepository.findByFinancialYear(year)
+                .orElseGet(() -> new InvoiceCounter(year)); // First invoice of the year
+        long number = counter.getNextNumber();
+        counter.setNextNumber(number + 1);
+        counterRepository.save(counter);
+        return String.format("GJ-%s-%05d", year, number);
+    }
+
+    /** e.g. 2026-02-10 -> "2025-26" (year starting 1 April) */
+    String financialYear(LocalDate date) {
+        int startYear = MonthDay.from(date).isBefore(yearStart) ? date.getYear() - 1 : date.getYear();
+        return String.format("%d-%02d", startYear, (startYear + 1) % 100);
+    }
+}
@@ -0,0 +1,63 @@
+package com.gorkha.gorkhajewellery.service;
+
+import com.gorkha.gorkhajewellery.model.Invoice;
+import com.gorkha.gorkhajewellery.model.InvoiceSummary;
+import com.gorkha.gorkhajewellery.repository.InvoiceRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Type-ahead search over customer name, phone number and invoice number.
+ * Each field is a prefix match on its own index; results are merged newest first.
+ * Every query returns its own newest MAX_RESULTS, so the newest MAX_RESULTS of the merge are the right ones
+ * even when a short prefix matches thousands of invoices.
+ */
+@Service
+public class InvoiceSearchService {
+
+    public static final int MAX_RESULTS = 50;
+
+    @Autowired private InvoiceRepository invoiceRepository;
+    @Autowired private MeterRegistry meterRegistry;
+
+    public List<InvoiceSummary> search(String query) {
+        String text = query == null ? "" : query.trim();
+        if (text.isEmpty()) return List.of();
+        return meterRegistry.timer("gj.search").record(() -> searchAll(text));
+    }
+
+    private List<InvoiceSummary> searchAll(String text) {
+
+        PageRequest page = PageRequest.of(0, MAX_RESULTS);
+        Map<Long, InvoiceSummary> hits = new LinkedHashMap<>();
+
+        // 1. Customer name
+        invoiceRepository.searchByCustomerPrefix(prefixPattern(Invoice.normalizeName(text)), page)
+                .forEach(s -> hits.putIfAbsent(s.id(), s));
+
+        // 2. Phone (only if the user typed digits)
+        String digits = Invoice.normalizePhone(text);
+        if (!digits.isEmpty()) {
+            invoiceRepository.searchByPhonePrefix(prefixPattern(digits), page)
+                    .forEach(s -> hits.putIfAbsent(s.id(), s));
+        }
+
+        // 3. Invoice number
+        invoiceRepository.searchByInvoiceNumberPrefix(prefixPattern(text.toUpperCase(Locale.ROOT)), page)
+                .forEach(s -> hits.putIfAbsent(s.id(), s));
+
+        List<InvoiceSummary> results = new ArrayList<>(hits.values());
+        results.sort(Comparator.comparing(InvoiceSummary::date, Comparator.nullsLast(Comparator.reverseOrder()))
+                .thenComparing(InvoiceSummary::id, Comparator.reverseOrder()));
+        return results.size() > MAX_RESULTS ? results.subList(0, MAX_RESULTS) : results;
+    }
+
+    // Escape LIKE wildcards typed by the user, then add the trailing %
+    private String prefixPattern(String prefix) {
+        return prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+}
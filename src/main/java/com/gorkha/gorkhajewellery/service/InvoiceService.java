@@ -0,0 +1,80 @@
+package com.gorkha.gorkhajewellery.service;
+
+import com.gorkha.gorkhajewellery.model.Invoice;
+import com.gorkha.gorkhajewellery.model.InvoiceItem;
+import com.gorkha.gorkhajewellery.repository.InvoiceRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Slf4j
+@Service
+public class InvoiceService {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Autowired private InvoiceRepository invoiceRepository;
+    @Autowired private ReportService reportService;
+    @Autowired private InvoiceNumberService invoiceNumberService;
+    @Autowired private CustomerService customerService;
+    @Autowired @Lazy private TransactionTemplate transactionTemplate; // Needs Hibernate - resolved on the first save
+    @Autowired private MeterRegistry meterRegistry;
+
+    /**
+     * Numbers the invoice (if it has no number yet), saves it and updates the sales rollups and customer in one transaction.
+     * When this returns, the invoice is committed - safe to print/publish the PDF.
+     *
+     * If another till updated the same rollup row at the same moment (@Version conflict, or both
+     * inserting the first row of the day) the whole transaction is rolled back and run again.
+     */
+    public Invoice save(Invoice invoice) {
+        reportService.ensureBackfilled(); // Rollups complete first (waits for a first-run rebuild)
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            Invoice saved = saveWithRetry(invoice);
+            sample.stop(meterRegistry.timer("gj.invoice.save", "outcome", "saved"));
+            return saved;
+        } catch (RuntimeException e) {
+            sample.stop(meterRegistry.timer("gj.invoice.save", "outcome", "failed"));
+            throw e;
+        }
+    }
+
+    private Invoice saveWithRetry(Invoice invoice) {
+        String number = invoice.getInvoiceNumber();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(tx -> saveInTransaction(invoice));
+            } catch (ConcurrencyFailureException | DataIntegrityViolationException e) {
+                if (attempt == MAX_ATTEMPTS) throw e;
+                log.info("Save conflicted with another till (attempt {}), retrying: {}", attempt, e.getMessage());
+                meterRegistry.counter("gj.invoice.save.retries").increment();
+                resetForRetry(invoice, number);
+            }
+        }
+    }
+
+    private Invoice saveInTransaction(Invoice invoice) {
+        if (invoice.getInvoiceNumber() == null) {
+            invoice.setInvoiceNumber(invoiceNumberService.next(invoice.getDate()));
+        }
+        Invoice saved = invoiceRepository.save(invoice);
+        reportService.record(saved);
+        customerService.record(saved);
+        return saved;
+    }
+
+    // The rolled-back attempt may already have set ids, version and number on the objects
+    private void resetForRetry(Invoice invoice, String number) {
+        invoice.setId(null);
+        invoice.setVersion(null);
+        invoice.setInvoiceNumber(number);
+        for (InvoiceItem item : invoice.getItems()) item.setId(null);
+    }
+}
@@ -0,0 +1,99 @@
+package com.gorkha.gorkhajewellery.service;
+
+import com.gorkha.gorkhajewellery.model.Invoice;
+import com.gorkha.gorkhajewellery.model.InvoiceItem;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Saved invoice PDFs, reused when an invoice is reopened.
+ *
+ * Next to each Invoice_<number>.pdf is a small .key file holding a hash of everything that was printed
+ * (invoice id, all printed fields and items) plus the template key (layout version, logo and signature files).
+ * Same key -> the file on disk is still correct and is opened as is; otherwise it is rendered again.
+ */
+public class PdfArtifactCache {
+
+    public interface Renderer {
+        byte[] render(Invoice invoice) throws Exception;
+    }
+
+    private final PdfFileSink files;
+    private final String templateKey;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();    // No PDF yet (or its .key is missing)
+    private final LongAdder evictions = new LongAdder(); // PDF existed but the invoice or template changed
+
+    public PdfArtifactCache(PdfFileSink files, String templateKey) {
+        this.files = files;
+        this.templateKey = templateKey;
+    }
+
+    /** The saved PDF if it is still valid, otherwise renders and saves it first. */
+    public Path get(Invoice invoice, Renderer renderer) throws Exception {
+        Path pdf = files.pathFor(invoice);
+        Path keyFile = keyFileFor(pdf);
+        String key = key(invoice);
+
+        if (Files.isRegularFile(pdf) && Files.size(pdf) > 0 && Files.isRegularFile(keyFile)) {
+            if (key.equals(Files.readString(keyFile))) {
+                hits.increment();
+                return pdf;
+            }
+            evictions.increment();
+        } else {
+            misses.increment();
+        }
+        return put(invoice, renderer.render(invoice));
+    }
+
+    /** Saves a freshly rendered PDF (print path) so the next reopen is a hit. */
+    public Path put(Invoice invoice, byte[] pdf) throws IOException {
+        Path file = files.write(invoice, pdf);
+        // Written after the PDF: a crash in between only costs one extra render
+        Files.writeString(keyFileFor(file), key(invoice));
+        return file;
+    }
+
+    public long getHits() { return hits.sum(); }
+    public long getMisses() { return misses.sum(); }
+    public long getEvictions() { return evictions.sum(); }
+
+    private static Path keyFileFor(Path pdf) {
+        return pdf.resolveSibling(pdf.getFileName() + ".key");
+    }
+
+    String key(Invoice invoice) {
+        StringBuilder s = new StringBuilder(512).append(templateKey).append('|')
+                .append(invoice.getId()).append('|').append(invoice.getInvoiceNumber()).append('|').append(invoice.getDate()).append('|')
+                .append(invoice.getCustomerName()).append('|').append(invoice.getCustomerPhone()).append('|').append(invoice.getCustomerAddress()).append('|')
+                .append(invoice.getRate22k()).append('|').append(invoice.getRate24k()).append('|').append(invoice.getSubTotal()).append('|')
+                .append(invoice.getOldGoldAmount()).append('|').append(invoice.getDiscountAmount()).append('|').append(invoice.getGstPercent()).append('|')
+                .append(invoice.getGstAmount()).append('|').append(invoice.getGrandTotal()).append('|').append(invoice.getAdvancePayment()).append('|')
+                .append(invoice.getBalanceDue()).append('|').append(invoice.getSoldBy());
+        for (InvoiceItem item : invoice.getItems()) {
+            s.append('\n').append(item.getDescription()).append('|').append(item.getCategory()).append('|').append(item.getPurity()).append('|')
+                    .append(item.getRatePerUnit()).append('|').append(item.getWeightUnit()).append('|')
+                    .append(item.getNetWeightLal()).append('|').append(item.getWastageLal()).append('|').append(item.getDisplayTotalWeight()).append('|')
+                    .append(item.getStoneCost()).append('|').append(item.getWages()).append('|').append(item.getMakingCharge()).append('|').append(item.getLineTotal());
+        }
+        return sha256(s.toString());
+    }
+
+    static String sha256(String text) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // Every JVM has SHA-256
+        }
+    }
+}
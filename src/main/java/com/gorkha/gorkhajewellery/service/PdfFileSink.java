@@ -0,0 +1,46 @@
+package com.gorkha.gorkhajewellery.service;
+
+import com.gorkha.gorkhajewellery.model.Invoice;
+
+import java.io.IOException;
+import java.nio.file.*;
+
+/**
+ * Writes each invoice to {@code <directory>/Invoice_<number>.pdf}.
+ * The file is written to a temp file first and then renamed, so a viewer (or a crash)
+ * never sees a half-written PDF.
+ */
+public class PdfFileSink implements PdfSink {
+
+    private final Path directory;
+
+    public PdfFileSink(Path directory) {
+        this.directory = directory;
+    }
+
+    public Path pathFor(Invoice invoice) {
+        return directory.resolve("Invoice_" + invoice.getInvoiceNumber() + ".pdf");
+    }
+
+    @Override
+    public void accept(Invoice invoice, byte[] pdf) throws IOException {
+        write(invoice, pdf);
+    }
+
+    public Path write(Invoice invoice, byte[] pdf) throws IOException {
+        Files.createDirectories(directory);
+        Path target = pathFor(invoice);
+        Path temp = Files.createTempFile(directory, "Invoice_", ".pdf.tmp");
+        try {
+            Files.write(temp, pdf);
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return target;
+    }
+}
@@ -0,0 +1,50 @@
+package com.gorkha.gorkhajewellery.service;
+
+import com.gorkha.gorkhajewellery.model.Invoice;
+import com.lowagie.text.Document;
+import com.lowagie.text.pdf.PdfCopy;
+import com.lowagie.text.pdf.PdfReader;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Appends every invoice to one combined PDF (PdfCopy - pages are copied, not re-rendered).
+ * close() finishes the document.
+ */
+public class PdfMergeSink implements PdfSink, AutoCloseable {
+
+    private final OutputStream out;
+    private final Document document = new Document();
+    private final PdfCopy copy;
+    private int pages;
+
+    public PdfMergeSink(Path target) throws Exception {
+        this.out = new BufferedOutputStream(Files.newOutputStream(target));
+        this.copy = new PdfCopy(document, out);
+        document.open();
+    }
+
+    @Override
+    public void accept(Invoice invoice, byte[] pdf) throws Exception {
+        PdfReader reader = new PdfReader(pdf);
+        for (int page = 1; page <= reader.getNumberOfPages(); page++) {
+            copy.addPage(copy.getImportedPage(reader, page));
+            pages++;
+        }
+        copy.freeReader(reader);
+        reader.close();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (pages > 0) document.close(); // An empty document cannot be closed by OpenPDF
+        } finally {
+            out.close();
+        }
+    }
+}
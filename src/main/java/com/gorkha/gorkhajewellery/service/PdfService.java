@@ -2,17 +2,38 @@ package com.gorkha.gorkhajewellery.service;
 
 import com.gorkha.gorkhajewellery.model.Invoice;
 import com.gorkha.gorkhajewellery.model.InvoiceItem;
+import com.gorkha.gorkhajewellery.model.Money;
 import com.lowagie.text.*;
 import com.lowagie.text.pdf.*;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import java.awt.Color;
-import java.io.FileOutputStream;
-import java.text.DecimalFormat;
-
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
 @Service
 public class PdfService {
 
-    private static final DecimalFormat df = new DecimalFormat("0.00");
+    // Bump whenever render() prints something differently - saved PDFs are then re-rendered on reopen
+    private static final int TEMPLATE_VERSION = 4; // 2: rates strip per purity, 3: wages include the making charge, 4: own Making column
+
+    // Starting size of the in-memory render buffer (it grows if a PDF is bigger)
+    private static final int RENDER_BUFFER_BYTES = 64 * 1024;
 
     // --- BRANDING COLORS ---
     private static final Color BRAND_COLOR = new Color(128, 0, 0); // Maroon
@@ -26,21 +47,96 @@ public class PdfService {
     private static final Font DATA_FONT = FontFactory.getFont(FontFactory.HELVETICA, 9, Color.BLACK);
     private static final Font BOLD_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10, Color.BLACK);
 
-    public void generatePdf(Invoice invoice) throws Exception {
-        // 1. Get the User's Documents Folder
-        String userHome = System.getProperty("user.home");
-        String folderPath = userHome + "/Documents/GorkhaJewellery/Invoices/";
-
-        // 2. Create the folder if it doesn't exist
-        java.io.File directory = new java.io.File(folderPath);
-        if (!directory.exists()) {
-            directory.mkdirs();
+    // --- IMAGES (read & decoded once, copied per invoice) ---
+    private final CachedImage logo;
+    private final CachedImage signature;
+
+    // --- OUTPUT ---
+    private final PdfArtifactCache savedPdfs;
+    private final PdfViewer viewer;
+
+    /** Who asked for a render - the gj.pdf.render "source" tag, so debounced previews don't mix with printing. */
+    public enum RenderSource { PRINT, PREVIEW, EXPORT }
+
+    // --- METRICS (gj.pdf.*) ---
+    private final Map<RenderSource, Timer> imageTimers = new EnumMap<>(RenderSource.class);
+    private final Map<RenderSource, Timer> layoutTimers = new EnumMap<>(RenderSource.class);
+    private final Timer writeTimer, reopenTimer;
+
+    public PdfService(@Value("${app.logo.path}") String logoPath,
+                      @Value("${app.signature.path}") String signaturePath,
+                      @Value("${app.invoice.dir}") String invoiceDir,
+                      PdfViewer viewer,
+                      MeterRegistry meterRegistry) {
+        this.logo = new CachedImage(logoPath, 120, 80);
+        this.signature = new CachedImage(signaturePath, 100, 50);
+        this.savedPdfs = new PdfArtifactCache(new PdfFileSink(Path.of(invoiceDir)),
+                TEMPLATE_VERSION + "|" + fileStamp(logoPath) + "|" + fileStamp(signaturePath));
+        this.viewer = viewer;
+
+        // A render = "images" (logo/signature copies) + "layout" (building and encoding the document), per source
+        for (RenderSource source : RenderSource.values()) {
+            String tag = source.name().toLowerCase(Locale.ROOT);
+            imageTimers.put(source, meterRegistry.timer("gj.pdf.render", "phase", "images", "source", tag));
+            layoutTimers.put(source, meterRegistry.timer("gj.pdf.render", "phase", "layout", "source", tag));
         }
+        this.writeTimer = meterRegistry.timer("gj.pdf.write");
+        this.reopenTimer = meterRegistry.timer("gj.pdf.reopen");
+        FunctionCounter.builder("gj.pdf.cache", savedPdfs, PdfArtifactCache::getHits).tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("gj.pdf.cache", savedPdfs, PdfArtifactCache::getMisses).tag("result", "miss").register(meterRegistry);
+        FunctionCounter.builder("gj.pdf.cache", savedPdfs, PdfArtifactCache::getEvictions).tag("result", "eviction").register(meterRegistry);
+    }
+
+    /**
+     * Print path: saves the PDF in the invoice folder (app.invoice.dir) and opens it.
+     */
+    public Path generatePdf(Invoice invoice) throws Exception {
+        byte[] pdf = renderToBytes(invoice, RenderSource.PRINT);
+        Path file = writeTimer.recordCallable(() -> savedPdfs.put(invoice, pdf));
+        viewer.open(file);
+        return file;
+    }
+
+    /**
+     * Reprint path (Sales History): opens the saved PDF, rendering it again only if
+     * the invoice or the template changed since it was saved. Call off the FX thread.
+     */
+    public Path openPdf(Invoice invoice) throws Exception {
+        Path file = reopenTimer.recordCallable(() -> savedPdfs.get(invoice, i -> renderToBytes(i, RenderSource.PRINT)));
+        viewer.open(file);
+        return file;
+    }
+
+    public PdfArtifactCache getSavedPdfs() {
+        return savedPdfs;
+    }
+
+    /** Renders into memory (preview, merge, batch export). */
+    public byte[] renderToBytes(Invoice invoice, RenderSource source) throws DocumentException {
+        // One per render: renders run on virtual threads (one per task), so a per-thread buffer would never be reused
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(RENDER_BUFFER_BYTES);
+        render(invoice, buffer, source);
+        return buffer.toByteArray();
+    }
+
+    public void render(Invoice invoice, WritableByteChannel channel, RenderSource source) throws DocumentException {
+        render(invoice, Channels.newOutputStream(channel), source);
+    }
+
+    /**
+     * Writes the invoice PDF to the given stream (the stream is not closed).
+     * Safe to call from several threads at once - each call has its own Document/PdfWriter.
+     */
+    public void render(Invoice invoice, OutputStream out, RenderSource source) throws DocumentException {
+        long start = System.nanoTime();
+        Image logoImage = logo.copy();           // app.logo.path
+        Image signatureImage = signature.copy(); // app.signature.path
+        long imagesDone = System.nanoTime();
+        imageTimers.get(source).record(imagesDone - start, TimeUnit.NANOSECONDS);
 
-        // 3. Save file there
-        String filename = folderPath + "Invoice_" + invoice.getInvoiceNumber() + ".pdf";
         Document document = new Document(PageSize.A4, 30, 30, 30, 30);
-        PdfWriter.getInstance(document, new FileOutputStream(filename));
+        PdfWriter writer = PdfWriter.getInstance(document, out);
+        writer.setCloseStream(false);
         document.open();
 
         // 1. LOGO & HEADER
@@ -52,12 +148,10 @@ public class PdfService {
         logoCell.setBorder(Rectangle.NO_BORDER);
         logoCell.setHorizontalAlignment(Element.ALIGN_CENTER);
         logoCell.setVerticalAlignment(Element.ALIGN_MIDDLE);
-        try {
-            Image logo = Image.getInstance("logo.png"); // Make sure logo.png is in your project folder
-            logo.scaleToFit(120, 80);
-            logo.setAlignment(Element.ALIGN_CENTER);
-            logoCell.addElement(logo);
-        } catch (Exception e) {
+        if (logoImage != null) {
+            logoImage.setAlignment(Element.ALIGN_CENTER);
+            logoCell.addElement(logoImage);
+        } else {
             Paragraph p = new Paragraph("GJ", TITLE_FONT);
             p.setAlignment(Element.ALIGN_CENTER);
             logoCell.addElement(p);
@@ -127,7 +221,7 @@ public class PdfService {
         // Gold Rates Strip
         PdfPTable rateTable = new PdfPTable(1);
         rateTable.setWidthPercentage(100);
-        PdfPCell rateCell = new PdfPCell(new Phrase("Gold Rates:   $" + invoice.getRate22k() + " (22K)   |   $" + invoice.getRate24k() + " (24K)", BOLD_FONT));
+        PdfPCell rateCell = new PdfPCell(new Phrase("Rates:   " + rateStrip(invoice), BOLD_FONT));
         rateCell.setBackgroundColor(new Color(255, 250, 205)); // Light Yellow
         rateCell.setPadding(6);
         rateCell.setHorizontalAlignment(Element.ALIGN_CENTER);
@@ -137,13 +231,13 @@ public class PdfService {
         document.add(new Paragraph(" "));
 
         // 3. ITEMS TABLE (The "Pretty" Grid)
-        float[] cols = {0.8f, 4, 1.2f, 1.5f, 1.5f, 1.5f, 1.5f, 2};
+        float[] cols = {0.8f, 3.6f, 1.2f, 1.4f, 1.5f, 1.4f, 1.4f, 1.4f, 2};
         PdfPTable table = new PdfPTable(cols);
         table.setWidthPercentage(100);
         table.setHeaderRows(1);
 
         // Headers
-        String[] headers = {"SN", "Particulars", "Net Weight", "Wastage","Total Weight", "Stones", "Wages", "Total Amount"};
+        String[] headers = {"SN", "Particulars", "Net Weight", "Wastage","Total Weight", "Stones", "Making", "Wages", "Total Amount"};
         for (String h : headers) {
             PdfPCell cell = new PdfPCell(new Phrase(h, HEADER_FONT));
             cell.setBackgroundColor(BRAND_COLOR); // Maroon Header
@@ -163,9 +257,10 @@ public class PdfService {
             addCell(table, item.getNetWeightLal() + " " + item.getWeightUnit(), rowColor, Element.ALIGN_CENTER);
             addCell(table, item.getWastageLal() + " Lal", rowColor, Element.ALIGN_CENTER);
             addCell(table, item.getDisplayTotalWeight() + " " + item.getWeightUnit(), rowColor, Element.ALIGN_CENTER);
-            addCell(table, df.format(item.getStoneCost()), rowColor, Element.ALIGN_CENTER);
-            addCell(table, df.format(item.getWages()), rowColor, Element.ALIGN_CENTER);
-            addCell(table, df.format(item.getLineTotal()), rowColor, Element.ALIGN_CENTER);
+            addCell(table, item.getStoneCost().toString(), rowColor, Element.ALIGN_CENTER);
+            addCell(table, item.getMakingCharge().toString(), rowColor, Element.ALIGN_CENTER); // As stored and exported (CSV Making column)
+            addCell(table, item.getWages().toString(), rowColor, Element.ALIGN_CENTER);
+            addCell(table, item.getLineTotal().toString(), rowColor, Element.ALIGN_CENTER);
 
             alternate = !alternate;
         }
@@ -194,13 +289,11 @@ public class PdfService {
 
         leftCell.addElement(blankSpace);
 
-        try {
-            Image signature = Image.getInstance("signature.png");
-            signature.scaleToFit(100, 50);
-            signature.setAlignment(Element.ALIGN_LEFT);
-            signature.setIndentationLeft(40); // Center the image itself
-            leftCell.addElement(signature);
-        } catch (Exception e) {
+        if (signatureImage != null) {
+            signatureImage.setAlignment(Element.ALIGN_LEFT);
+            signatureImage.setIndentationLeft(40); // Center the image itself
+            leftCell.addElement(signatureImage);
+        } else {
             Paragraph p = new Paragraph("(Authorized Signature)", FontFactory.getFont(FontFactory.HELVETICA_OBLIQUE, 8));
             p.setAlignment(Element.ALIGN_LEFT);
             p.setIndentationLeft(50);
@@ -213,24 +306,24 @@ public class PdfService {
         PdfPTable totalsTable = new PdfPTable(2);
         totalsTable.setWidthPercentage(100);
 
-        addRow(totalsTable, "Subtotal:", df.format(invoice.getSubTotal()), false);
-        if (invoice.getOldGoldAmount() > 0) addRow(totalsTable, "Less Old Gold:", "-" + df.format(invoice.getOldGoldAmount()), false);
-        if (invoice.getDiscountAmount() > 0) addRow(totalsTable, "Discount:", "-" + df.format(invoice.getDiscountAmount()), false);
+        addRow(totalsTable, "Subtotal:", invoice.getSubTotal().toString(), false);
+        if (invoice.getOldGoldAmount().isPositive()) addRow(totalsTable, "Less Old Gold:", "-" + invoice.getOldGoldAmount(), false);
+        if (invoice.getDiscountAmount().isPositive()) addRow(totalsTable, "Discount:", "-" + invoice.getDiscountAmount(), false);
 
-        addRow(totalsTable, "GST (" + invoice.getGstPercent() + "%):", df.format((invoice.getSubTotal() - invoice.getOldGoldAmount()) * (invoice.getGstPercent() / 100)), false);
+        addRow(totalsTable, "GST (" + invoice.getGstPercent() + "%):", invoice.getGstAmount().toString(), false);
 
         // Grand Total (Bold & Background)
         PdfPCell labelCell = new PdfPCell(new Phrase("GRAND TOTAL:", BOLD_FONT));
         labelCell.setBorder(Rectangle.TOP); labelCell.setPadding(6);
-        PdfPCell valueCell = new PdfPCell(new Phrase("$" + df.format(invoice.getGrandTotal()), BOLD_FONT));
+        PdfPCell valueCell = new PdfPCell(new Phrase("$" + invoice.getGrandTotal(), BOLD_FONT));
         valueCell.setBorder(Rectangle.TOP); valueCell.setPadding(6); valueCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
 
         totalsTable.addCell(labelCell);
         totalsTable.addCell(valueCell);
 
-        if (invoice.getAdvancePayment() > 0) {
-            addRow(totalsTable, "Paid:", df.format(invoice.getAdvancePayment()), false);
-            addRow(totalsTable, "Balance Due:", df.format(invoice.getBalanceDue()), true); // Red Color for Due
+        if (invoice.getAdvancePayment().isPositive()) {
+            addRow(totalsTable, "Paid:", invoice.getAdvancePayment().toString(), false);
+            addRow(totalsTable, "Balance Due:", invoice.getBalanceDue().toString(), true); // Red Color for Due
         }
 
         PdfPCell rightCell = new PdfPCell(totalsTable);
@@ -241,13 +334,34 @@ public class PdfService {
 
         document.add(footerTable);
         document.close();
-
-        // Auto Open
-        try { Runtime.getRuntime().exec("open " + filename); } catch (Exception e) {}
-        try { Runtime.getRuntime().exec("explorer.exe " + filename); } catch (Exception e) {}
+        layoutTimers.get(source).record(System.nanoTime() - imagesDone, TimeUnit.NANOSECONDS);
     }
 
     // --- Helper Methods ---
+
+    // A new logo or signature file changes every PDF
+    private static String fileStamp(String path) {
+        try {
+            Path file = Path.of(path);
+            return Files.exists(file) ? Files.size(file) + "@" + Files.getLastModifiedTime(file).toMillis() : "none";
+        } catch (Exception e) {
+            return "none";
+        }
+    }
+
+    // "$1340.00 (22K)   |   $95.00 (Silver)" - the rate each purity on the invoice was priced at
+    private static String rateStrip(Invoice invoice) {
+        Map<String, Money> rates = new LinkedHashMap<>();
+        for (InvoiceItem item : invoice.getItems()) rates.putIfAbsent(item.getPurity(), item.getRatePerUnit());
+        if (rates.isEmpty()) { // Nothing priced yet (empty preview)
+            rates.put("22K", invoice.getRate22k());
+            rates.put("24K", invoice.getRate24k());
+        }
+        StringJoiner strip = new StringJoiner("   |   ");
+        rates.forEach((purity, rate) -> strip.add("$" + rate + " (" + purity + ")"));
+        return strip.toString();
+    }
+
     private void addCell(PdfPTable table, String text, Color bg, int align) {
         PdfPCell cell = new PdfPCell(new Phrase(text, DATA_FONT));
         cell.setBackgroundColor(bg);
@@ -268,4 +382,35 @@ public class PdfService {
         table.addCell(c1);
         table.addCell(c2);
     }
-}
\ No newline at end of file
+
+    /**
+     * An image file decoded on first use and kept in memory.
+     * Each PDF gets a cheap copy (shares the decoded pixels) so alignment changes don't leak between invoices.
+     * A missing/broken file is remembered too, so we don't hit the disk again on every invoice.
+     */
+    private static class CachedImage {
+        private final String path;
+        private final float maxWidth, maxHeight;
+        private Image image;
+        private boolean loaded;
+
+        CachedImage(String path, float maxWidth, float maxHeight) {
+            this.path = path;
+            this.maxWidth = maxWidth;
+            this.maxHeight = maxHeight;
+        }
+
+        synchronized Image copy() {
+            if (!loaded) {
+                loaded = true;
+                try {
+                    image = Image.getInstance(Files.readAllBytes(Path.of(path)));
+                    image.scaleToFit(maxWidth, maxHeight);
+                } catch (Exception e) {
+                    log.warn("Could not load image {} - using text instead", path, e);
+                }
+            }
+            return image == null ? null : Image.getInstance(image);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.gorkha.gorkhajewellery.service;
+
+import com.gorkha.gorkhajewellery.model.Invoice;
+
+/**
+ * Where a rendered invoice PDF goes (a folder, a merged document, a preview...).
+ * PdfService only renders bytes; sinks decide what to do with them.
+ */
+public interface PdfSink {
+    void accept(Invoice invoice, byte[] pdf) throws Exception;
+}
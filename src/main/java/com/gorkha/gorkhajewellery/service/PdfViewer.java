@@ -0,0 +1,31 @@
+package com.gorkha.gorkhajewellery.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.awt.Desktop;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Opens a PDF in the system viewer.
+ * Uses the Desktop API when available, otherwise exactly one OS-specific command.
+ */
+@Slf4j
+@Component
+public class PdfViewer {
+
+    public void open(Path file) {
+        try {
+            if (Desktop.isDesktopSupported() && Desktop.getDesktop().isSupported(Desktop.Action.OPEN)) {
+                Desktop.getDesktop().open(file.toFile());
+                return;
+            }
+            String os = System.getProperty("os.name", "").toLowerCase(Locale.ROOT);
+            String command = os.contains("win") ? "explorer.exe" : os.contains("mac") ? "open" : "xdg-open";
+            new ProcessBuilder(command, file.toString()).start();
+        } catch (Exception e) {
+            log.warn("Could not open {} in a PDF viewer", file, e);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.gorkha.gorkhajewellery.service;
+
+import com.gorkha.gorkhajewellery.pricing.PricingRules;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * PRICING: Reads the pricing rules from the settings and compiles them once (PricingRules).
+ * A rule that cannot be read stops the start with a message naming it, instead of pricing lines wrongly.
+ */
+@Slf4j
+@Service
+public class PricingService {
+
+    private final PricingRules rules;
+
+    public PricingService(@Value("${app.rates.purities:22K,24K}") List<String> purities,
+                          @Value("${app.pricing.making:}") String makingRules,
+                          @Value("${app.pricing.rate-units:}") String rateUnits) {
+        this.rules = PricingRules.compile(purities, makingRules, rateUnits);
+        log.info("Pricing rules loaded: categories {}, rate units [{}]", rules.getCategories(), rateUnits);
+    }
+
+    public PricingRules getRules() {
+        return rules;
+    }
+}
@@ -0,0 +1,178 @@
+package com.gorkha.gorkhajewellery.service;
+
+import com.gorkha.gorkhajewellery.model.*;
+import com.gorkha.gorkhajewellery.repository.InvoiceRepository;
+import com.gorkha.gorkhajewellery.repository.PuritySalesRepository;
+import com.gorkha.gorkhajewellery.repository.SalesRollupRepository;
+import com.gorkha.gorkhajewellery.repository.StaffSalesRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SALES REPORTS: Daily/monthly totals, GST, old gold, weight per purity and sales per staff.
+ *
+ * Every saved invoice is added to small per-day rollup tables in the same transaction (record),
+ * so reports read a few rows per day instead of scanning invoices and items.
+ */
+@Slf4j
+@Service
+public class ReportService {
+
+    private static final int BACKFILL_CHUNK = 200;
+
+    @Autowired private SalesRollupRepository rollups;
+    @Autowired private PuritySalesRepository puritySales;
+    @Autowired private StaffSalesRepository staffSales;
+    @Autowired private InvoiceRepository invoiceRepository;
+    // @Lazy: both need Hibernate running - resolved on first use (background thread), not when the UI is built
+    @Autowired @Lazy private TransactionTemplate transactionTemplate;
+    @Autowired @Lazy private EntityManager entityManager;
+
+    private final boolean backfillEnabled;
+    private volatile boolean backfilled; // Rollups hold every invoice - saves may add to them
+
+    public ReportService(@Value("${app.reports.backfill:true}") boolean backfillEnabled) {
+        this.backfillEnabled = backfillEnabled;
+    }
+
+    // ==========================================
+    // UPDATING (called from InvoiceService.save)
+    // ==========================================
+
+    /** Adds a newly saved invoice to the rollups. Must run inside the invoice's transaction. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Invoice invoice) {
+        LocalDate date = invoice.getDate();
+
+        DailySales day = rollups.findById(date).orElseGet(() -> new DailySales(date));
+        day.add(invoice);
+        rollups.save(day);
+
+        // Weight and amount per purity (one lookup per purity, not per item)
+        Map<String, DailyPuritySales> byPurity = new HashMap<>();
+        for (InvoiceItem item : invoice.getItems()) {
+            DailyPuritySales row = byPurity.computeIfAbsent(String.valueOf(item.getPurity()), purity ->
+                    puritySales.findByDateAndPurity(date, purity).orElseGet(() -> new DailyPuritySales(date, purity)));
+            row.setWeightLal(row.getWeightLal() + item.getTotalWeightLal());
+            row.setAmountCents(row.getAmountCents() + item.getLineTotal().getCents());
+        }
+        puritySales.saveAll(byPurity.values());
+
+        String soldBy = invoice.getSoldBy() == null || invoice.getSoldBy().isBlank() ? "-" : invoice.getSoldBy().trim();
+        DailyStaffSales staff = staffSales.findByDateAndSoldBy(date, soldBy).orElseGet(() -> new DailyStaffSales(date, soldBy));
+        staff.setInvoiceCount(staff.getInvoiceCount() + 1);
+        staff.setGrandTotalCents(staff.getGrandTotalCents() + invoice.getGrandTotal().getCents());
+        staffSales.save(staff);
+    }
+
+    // ==========================================
+    // QUERIES
+    // ==========================================
+
+    @Transactional(readOnly = true)
+    public List<SalesTotals> daily(LocalDate from, LocalDate to) {
+        return rollups.findByDateBetweenOrderByDate(from, to).stream()
+                .map(d -> new SalesTotals(d.getDate().toString(), d.getInvoiceCount(),
+                        Money.ofCents(d.getSubTotalCents()), Money.ofCents(d.getOldGoldCents()),
+                        Money.ofCents(d.getDiscountCents()), Money.ofCents(d.getGstCents()),
+                        Money.ofCents(d.getGrandTotalCents())))
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public List<SalesTotals> monthly(LocalDate from, LocalDate to) {
+        return rollups.sumByMonth(from, to).stream()
+                .map(m -> new SalesTotals(String.format("%d-%02d", m.getYear(), m.getMonth()), m.getInvoiceCount(),
+                        Money.ofCents(m.getSubTotalCents()), Money.ofCents(m.getOldGoldCents()),
+                        Money.ofCents(m.getDiscountCents()), Money.ofCents(m.getGstCents()),
+                        Money.ofCents(m.getGrandTotalCents())))
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public List<SalesRollupRepository.PurityRow> byPurity(LocalDate from, LocalDate to) {
+        return rollups.sumByPurity(from, to);
+    }
+
+    @Transactional(readOnly = true)
+    public List<SalesRollupRepository.StaffRow> byStaff(LocalDate from, LocalDate to) {
+        return rollups.sumByStaff(from, to);
+    }
+
+    // ==========================================
+    // BACKFILL
+    // ==========================================
+
+    /**
+     * Saves may only add to the rollups once they hold every earlier invoice. Called before each save
+     * (InvoiceService) and at startup, so a first-run rebuild finishes before this till saves anything.
+     *
+     *   main till (app.reports.backfill): rebuilds them unless the marker row (V13) says that was done;
+     *                                     a save meanwhile waits
+     *   other tills:                      refuse to save until the main till has done it
+     *
+     * Done is the marker row, written after the last chunk - a rebuild cut short is started again.
+     */
+    public void ensureBackfilled() {
+        if (backfilled) return;
+        synchronized (this) {
+            if (backfilled) return;
+            if (rollups.countBackfillMarkers() == 0) {
+                if (!backfillEnabled) {
+                    throw new IllegalStateException("The main till has not finished building the sales report tables. "
+                            + "Start the main till first, then save again.");
+                }
+                rebuild();
+            }
+            backfilled = true;
+        }
+    }
+
+    /** Startup (warm-up): builds the rollups if this till is the one that does it. */
+    public void backfillIfNeeded() {
+        if (backfillEnabled) ensureBackfilled();
+    }
+
+    /**
+     * Rebuilds all rollups from the invoices, a chunk per transaction, then writes the marker row.
+     * Only safe while nobody saves: an invoice saved meanwhile would be recorded by its own save and picked
+     * up again by the scan. Hence only from ensureBackfilled, and no rebuild button.
+     */
+    private void rebuild() {
+        transactionTemplate.executeWithoutResult(tx -> {
+            rollups.deleteAllPuritySales();
+            rollups.deleteAllStaffSales();
+            rollups.deleteAllInBatch();
+        });
+
+        long afterId = 0;
+        long count = 0;
+        while (true) {
+            List<Long> ids = invoiceRepository.findIdsAfter(afterId, PageRequest.of(0, BACKFILL_CHUNK));
+            if (ids.isEmpty()) break;
+            afterId = ids.get(ids.size() - 1);
+
+            transactionTemplate.executeWithoutResult(tx -> {
+                invoiceRepository.findAllWithItemsByIdIn(ids).forEach(this::record);
+                entityManager.flush();
+                entityManager.clear(); // Keep memory flat across years of invoices
+            });
+            count += ids.size();
+        }
+        transactionTemplate.executeWithoutResult(tx -> rollups.markBackfilled());
+        log.info("Rebuilt sales rollups from {} invoices", count);
+    }
+}
@@ -0,0 +1,89 @@
+package com.gorkha.gorkhajewellery.service;
+
+import com.gorkha.gorkhajewellery.model.Money;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.prefs.Preferences;
+
+/**
+ * SETTINGS: Gold rates live in memory; changes are written out in one batch
+ * FLUSH_DELAY after the last edit (and at shutdown), never on the typing path.
+ *
+ * Each flush also records the new rates in the rate history (GoldRateService).
+ */
+@Slf4j
+@Service
+public class SettingsService {
+
+    private static final long FLUSH_DELAY_MS = 2000;
+    private static final Map<String, String> DEFAULT_RATES = Map.of("22K", "1340", "24K", "1430");
+
+    // Same node the invoice screen used before, so saved rates carry over
+    private final Preferences prefs = Preferences.userRoot().node("com/gorkha/gorkhajewellery/ui");
+
+    private final Map<String, Money> rates = new ConcurrentHashMap<>();
+    private final Map<String, Money> pending = new ConcurrentHashMap<>(); // Changed since last flush
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "gj-settings-flush");
+        t.setDaemon(true);
+        return t;
+    });
+    private ScheduledFuture<?> scheduledFlush;
+
+    @Autowired private GoldRateService goldRateService;
+
+    public Money getRate(String purity) {
+        return rates.computeIfAbsent(purity, p -> Money.parse(prefs.get(key(p), DEFAULT_RATES.getOrDefault(p, "0"))));
+    }
+
+    public void setRate(String purity, Money rate) {
+        Money previous = rates.put(purity, rate);
+        if (rate.equals(previous)) return;
+        pending.put(purity, rate);
+        scheduleFlush();
+    }
+
+    private synchronized void scheduleFlush() {
+        if (scheduledFlush != null) scheduledFlush.cancel(false);
+        scheduledFlush = scheduler.schedule(this::flush, FLUSH_DELAY_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /** Writes pending changes to Preferences and the rate history. Safe to call any time. */
+    public synchronized void flush() {
+        if (pending.isEmpty()) return;
+        LocalDateTime now = LocalDateTime.now();
+        for (String purity : pending.keySet()) {
+            Money rate = pending.remove(purity);
+            if (rate == null) continue;
+            prefs.put(key(purity), rate.toString());
+            try {
+                goldRateService.record(purity, rate, now);
+            } catch (Exception e) {
+                log.warn("Could not record {} rate history", purity, e);
+            }
+        }
+        try {
+            prefs.flush();
+        } catch (Exception e) {
+            log.warn("Could not save settings", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        flush();
+    }
+
+    private static String key(String purity) {
+        return "rate" + purity.toLowerCase(Locale.ROOT); // "rate22k" - same keys as before
+    }
+}
@@ -0,0 +1,66 @@
+package com.gorkha.gorkhajewellery.ui;
+
+import com.gorkha.gorkhajewellery.model.Customer;
+import javafx.geometry.Side;
+import javafx.scene.control.ContextMenu;
+import javafx.scene.control.CustomMenuItem;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * AUTOCOMPLETE: Drop-down of matching repeat customers under a text field.
+ * The lookup is in memory (CustomerService), so it runs right on the FX thread on every key.
+ */
+class CustomerAutocomplete {
+
+    private static final int MAX_SUGGESTIONS = 8;
+
+    private final TextField field;
+    private final BiFunction<String, Integer, List<Customer>> lookup;
+    private final Consumer<Customer> onSelect;
+    private final ContextMenu popup = new ContextMenu();
+
+    private boolean filling; // Our own setText() calls must not reopen the popup
+
+    CustomerAutocomplete(TextField field, BiFunction<String, Integer, List<Customer>> lookup, Consumer<Customer> onSelect) {
+        this.field = field;
+        this.lookup = lookup;
+        this.onSelect = onSelect;
+
+        field.textProperty().addListener((obs, old, text) -> {
+            if (!filling && field.isFocused()) suggest(text);
+        });
+        field.focusedProperty().addListener((obs, was, focused) -> { if (!focused) popup.hide(); });
+    }
+
+    /** Sets the text without showing suggestions (used when filling the form from a selection). */
+    void fill(String text) {
+        filling = true;
+        try {
+            field.setText(text == null ? "" : text);
+        } finally {
+            filling = false;
+        }
+    }
+
+    private void suggest(String text) {
+        List<Customer> matches = lookup.apply(text, MAX_SUGGESTIONS);
+        if (matches.isEmpty()) {
+            popup.hide();
+            return;
+        }
+
+        popup.getItems().clear();
+        for (Customer customer : matches) {
+            Label label = new Label(customer.getName() + "   " + customer.getPhone());
+            CustomMenuItem item = new CustomMenuItem(label, true);
+            item.setOnAction(e -> onSelect.accept(customer));
+            popup.getItems().add(item);
+        }
+        if (!popup.isShowing()) popup.show(field, Side.BOTTOM, 0, 0);
+    }
+}
@@ -0,0 +1,22 @@
+package com.gorkha.gorkhajewellery.ui;
+
+/**
+ * Two-decimal text for table cells without String.format (no Formatter/regex per cell repaint).
+ */
+final class Decimals {
+
+    private Decimals() {}
+
+    static String two(double value) {
+        long hundredths = Math.round(value * 100);
+        StringBuilder s = new StringBuilder(16);
+        if (hundredths < 0) {
+            s.append('-');
+            hundredths = -hundredths;
+        }
+        s.append(hundredths / 100).append('.');
+        long fraction = hundredths % 100;
+        if (fraction < 10) s.append('0');
+        return s.append(fraction).toString();
+    }
+}
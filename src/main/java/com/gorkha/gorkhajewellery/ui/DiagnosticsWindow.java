@@ -0,0 +1,140 @@
+package com.gorkha.gorkhajewellery.ui;
+
+import io.micrometer.core.instrument.*;
+import javafx.animation.AnimationTimer;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.control.*;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * DIAGNOSTICS: Live view of all meters (save/render/search timers, PDF cache, Hikari pool, Hibernate).
+ * Same numbers as logs/metrics.log; refreshed every 2 seconds while open.
+ *
+ * While open it also measures FX frame times (gj.ui.frame): leave it open, then scroll/edit a large
+ * invoice in the main window and compare mean/max against the 16.7 ms budget of a 60 Hz frame.
+ */
+class DiagnosticsWindow {
+
+    private static final Duration REFRESH = Duration.seconds(2);
+
+    record Row(String name, String tags, String count, String mean, String max, String value) {}
+
+    private final MeterRegistry registry;
+    private final TableView<Row> table = new TableView<>();
+
+    DiagnosticsWindow(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    void show() {
+        table.getColumns().addAll(
+                column("Meter", Row::name, 260),
+                column("Tags", Row::tags, 200),
+                column("Count", Row::count, 80),
+                column("Mean (ms)", Row::mean, 90),
+                column("Max (ms)", Row::max, 90),
+                column("Value", Row::value, 100));
+
+        TextField filter = new TextField();
+        filter.setPromptText("Filter, e.g. gj.  hikaricp  hibernate");
+        filter.textProperty().addListener((obs, old, text) -> refresh(text));
+
+        Label hint = new Label("gj.* = this app, hikaricp.* = database connections, hibernate.* = queries. Also written to logs/metrics.log.");
+        VBox layout = new VBox(8, filter, table, hint);
+        VBox.setVgrow(table, Priority.ALWAYS);
+        layout.setPadding(new Insets(10));
+
+        Timeline timer = new Timeline(new KeyFrame(REFRESH, e -> refresh(filter.getText())));
+        timer.setCycleCount(Timeline.INDEFINITE);
+        AnimationTimer frames = frameTimeMonitor(registry.timer("gj.ui.frame"));
+
+        Stage stage = new Stage();
+        stage.setTitle("Diagnostics");
+        stage.setScene(new Scene(layout, 860, 500));
+        stage.setOnHidden(e -> { timer.stop(); frames.stop(); });
+        stage.show();
+
+        refresh("");
+        timer.play();
+        frames.start();
+    }
+
+    // Time between two FX pulses = how long the UI thread took for the last frame (or idle time, capped by vsync)
+    private static AnimationTimer frameTimeMonitor(Timer frameTimer) {
+        return new AnimationTimer() {
+            private long last;
+
+            @Override
+            public void handle(long now) {
+                if (last != 0) frameTimer.record(now - last, TimeUnit.NANOSECONDS);
+                last = now;
+            }
+
+            @Override
+            public void stop() {
+                super.stop();
+                last = 0;
+            }
+        };
+    }
+
+    private void refresh(String filter) {
+        String text = filter == null ? "" : filter.trim();
+        List<Row> rows = registry.getMeters().stream()
+                .filter(m -> m.getId().getName().contains(text))
+                .sorted(Comparator.comparing((Meter m) -> m.getId().getName()).thenComparing(m -> tags(m.getId())))
+                .map(this::toRow)
+                .toList();
+        table.getItems().setAll(rows);
+    }
+
+    private Row toRow(Meter meter) {
+        String name = meter.getId().getName();
+        String tags = tags(meter.getId());
+        if (meter instanceof Timer t) {
+            return new Row(name, tags, String.valueOf(t.count()),
+                    ms(t.mean(TimeUnit.MILLISECONDS)), ms(t.max(TimeUnit.MILLISECONDS)), "");
+        }
+        if (meter instanceof Counter c) return new Row(name, tags, number(c.count()), "", "", "");
+        if (meter instanceof FunctionCounter c) return new Row(name, tags, number(c.count()), "", "", "");
+        if (meter instanceof Gauge g) return new Row(name, tags, "", "", "", number(g.value()));
+        if (meter instanceof FunctionTimer t) {
+            return new Row(name, tags, number(t.count()), ms(t.mean(TimeUnit.MILLISECONDS)), "", "");
+        }
+        // Anything else: first measurement
+        for (Measurement m : meter.measure()) return new Row(name, tags, "", "", "", number(m.getValue()));
+        return new Row(name, tags, "", "", "", "");
+    }
+
+    private static String tags(Meter.Id id) {
+        return id.getTags().stream().map(t -> t.getKey() + "=" + t.getValue()).collect(Collectors.joining(", "));
+    }
+
+    private static String ms(double value) {
+        return String.format("%.2f", value);
+    }
+
+    private static String number(double value) {
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.format("%.2f", value);
+    }
+
+    private static TableColumn<Row, String> column(String title, Function<Row, String> value, double width) {
+        TableColumn<Row, String> col = new TableColumn<>(title);
+        col.setCellValueFactory(cell -> new SimpleStringProperty(value.apply(cell.getValue())));
+        col.setPrefWidth(width);
+        return col;
+    }
+}
@@ -1,247 +1,481 @@
 package com.gorkha.gorkhajewellery.ui;
 
 
+import com.gorkha.gorkhajewellery.model.Customer;
 import com.gorkha.gorkhajewellery.model.Invoice;
+import com.gorkha.gorkhajewellery.model.InvoiceDraft;
 import com.gorkha.gorkhajewellery.model.InvoiceItem;
+import com.gorkha.gorkhajewellery.model.InvoiceSummary;
+import com.gorkha.gorkhajewellery.model.Money;
+import com.gorkha.gorkhajewellery.pricing.PricingRules;
+import com.gorkha.gorkhajewellery.pricing.WeightUnit;
 import com.gorkha.gorkhajewellery.repository.InvoiceRepository;
+import com.gorkha.gorkhajewellery.service.CsvExportService;
+import com.gorkha.gorkhajewellery.service.CustomerService;
+import com.gorkha.gorkhajewellery.service.DraftJournal;
+import com.gorkha.gorkhajewellery.service.GoldRateService;
+import com.gorkha.gorkhajewellery.service.InvoiceSearchService;
+import com.gorkha.gorkhajewellery.service.InvoiceService;
 import com.gorkha.gorkhajewellery.service.PdfService;
+import com.gorkha.gorkhajewellery.service.PricingService;
+import com.gorkha.gorkhajewellery.service.ReportService;
+import com.gorkha.gorkhajewellery.service.SettingsService;
+import io.micrometer.core.instrument.MeterRegistry;
 import javafx.application.Platform;
-import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
-import javafx.scene.Scene;
+import javafx.geometry.Pos;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.ComboBoxTableCell;
-import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.image.ImageView;
 import javafx.scene.input.KeyCode;
-import javafx.scene.layout.VBox;
-import javafx.stage.Stage;
+import javafx.scene.layout.FlowPane;
+import javafx.scene.layout.HBox;
 import javafx.util.StringConverter;
 import javafx.util.converter.DefaultStringConverter;
 import javafx.util.converter.DoubleStringConverter;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import java.time.LocalDate;
-import java.util.prefs.Preferences;
-
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+@Slf4j
 @Component
 public class InvoiceController {
 
     @Autowired private InvoiceRepository invoiceRepository;
     @Autowired private PdfService pdfService;
+    @Autowired private InvoiceSearchService invoiceSearchService;
+    @Autowired private InvoiceService invoiceService;
+    @Autowired private SettingsService settingsService;
+    @Autowired private ReportService reportService;
+    @Autowired private CsvExportService csvExportService;
+    @Autowired private CustomerService customerService;
+    @Autowired private GoldRateService goldRateService;
+    @Autowired private PricingService pricingService;
+    @Autowired private DraftJournal draftJournal; // Unsaved form survives a crash
+    @Autowired private ExecutorService backgroundExecutor; // Database & PDF work off the FX thread
+    @Autowired private MeterRegistry meterRegistry;
 
     // --- Inputs ---
     @FXML private TextField customerNameField, phoneField, customerAddressField, soldByField;
-    @FXML private TextField rate22kField, rate24kField;
+    @FXML private FlowPane ratesPane;
     @FXML private TextField oldGoldField, discountField, gstField, advanceField;
     @FXML private Label subTotalLabel, grandTotalLabel, balanceLabel;
+    @FXML private Label saveStatusLabel;
+    @FXML private Button saveButton;
+    @FXML private ImageView previewImage;
 
     // --- Table ---
     @FXML private TableView<InvoiceItem> itemTable;
-    @FXML private TableColumn<InvoiceItem, String> descCol, purityCol,unitCol;
-    @FXML private TableColumn<InvoiceItem, Double> netWtCol, wastageCol, totalWtCol, stoneCol, wagesCol, totalCol;
+    @FXML private TableColumn<InvoiceItem, String> descCol, categoryCol, purityCol,unitCol;
+    @FXML private TableColumn<InvoiceItem, Double> netWtCol, wastageCol, totalWtCol;
+    @FXML private TableColumn<InvoiceItem, Money> stoneCol, wagesCol, makingCol, totalCol;
 
     private ObservableList<InvoiceItem> items = FXCollections.observableArrayList();
-    private Preferences prefs = Preferences.userNodeForPackage(InvoiceController.class);
+    private final Map<String, TextField> rateFields = new LinkedHashMap<>(); // Purity -> rate field
+    private InvoiceTotals totals;
+    private InvoicePreview preview;
+    private CustomerAutocomplete nameAutocomplete, phoneAutocomplete;
+    private boolean journaling; // Off until the last run's draft is back, and while the form is filled by code
+    private long draftId; // The invoice in the form (DraftJournal) - new for every cleared form
 
     @FXML
     public void initialize() {
         itemTable.setEditable(true);
 
-        rate22kField.setText(prefs.get("rate22k", "1340"));
-        rate24kField.setText(prefs.get("rate24k", "1430"));
+        List<String> purities = goldRateService.getPurities();
+        PricingRules rules = pricingService.getRules();
+        totals = new InvoiceTotals(items, purities.get(0), rules, this::rateNow);
+        for (String purity : purities) addRateField(purity);
 
         // 1. Text Columns (Uses Custom EditCell for String)
-        descCol.setCellValueFactory(new PropertyValueFactory<>("description"));
+        descCol.setCellValueFactory(c -> c.getValue().descriptionProperty());
         descCol.setCellFactory(col -> new EditCell<>(new DefaultStringConverter()));
-        descCol.setOnEditCommit(e -> e.getRowValue().setDescription(e.getNewValue()));
+        descCol.setOnEditCommit(e -> { e.getRowValue().setDescription(e.getNewValue()); formChanged(); });
+
+        categoryCol.setCellValueFactory(c -> c.getValue().categoryProperty());
+        categoryCol.setCellFactory(ComboBoxTableCell.forTableColumn(rules.getCategories().toArray(String[]::new)));
+        categoryCol.setOnEditCommit(e -> { e.getRowValue().setCategory(e.getNewValue()); itemEdited(e); });
 
-        purityCol.setCellValueFactory(new PropertyValueFactory<>("purity"));
-        purityCol.setCellFactory(ComboBoxTableCell.forTableColumn("22K", "24K"));
-        purityCol.setOnEditCommit(e -> { e.getRowValue().setPurity(e.getNewValue()); recalculateAll(); });
+        purityCol.setCellValueFactory(c -> c.getValue().purityProperty());
+        purityCol.setCellFactory(ComboBoxTableCell.forTableColumn(purities.toArray(String[]::new)));
+        purityCol.setOnEditCommit(e -> { e.getRowValue().setPurity(e.getNewValue()); itemEdited(e); });
 
-        unitCol.setCellValueFactory(new PropertyValueFactory<>("weightUnit"));
-        unitCol.setCellFactory(ComboBoxTableCell.forTableColumn("Lal", "Tola"));
-        unitCol.setOnEditCommit(e -> { e.getRowValue().setWeightUnit(e.getNewValue()); recalculateAll(); });
+        unitCol.setCellValueFactory(c -> c.getValue().weightUnitProperty());
+        unitCol.setCellFactory(ComboBoxTableCell.forTableColumn(WeightUnit.labels()));
+        unitCol.setOnEditCommit(e -> { e.getRowValue().setWeightUnit(e.getNewValue()); itemEdited(e); });
 
-        // 2. Number Columns (Uses Custom EditCell for Double)
-        netWtCol.setCellValueFactory(new PropertyValueFactory<>("netWeightLal"));
-        setupDoubleCol(netWtCol, (item, v) -> item.setNetWeightLal(v));
+        // 2. Number Columns (Uses Custom EditCell for Double / Money)
+        netWtCol.setCellValueFactory(c -> c.getValue().netWeightLalProperty());
+        setupEditCol(netWtCol, new DoubleStringConverter(), (item, v) -> item.setNetWeightLal(v));
 
-        wastageCol.setCellValueFactory(new PropertyValueFactory<>("wastageLal"));
-        setupDoubleCol(wastageCol, (item, v) -> item.setWastageLal(v));
+        wastageCol.setCellValueFactory(c -> c.getValue().wastageLalProperty());
+        setupEditCol(wastageCol, new DoubleStringConverter(), (item, v) -> item.setWastageLal(v));
 
-        stoneCol.setCellValueFactory(new PropertyValueFactory<>("stoneCost"));
-        setupDoubleCol(stoneCol, (item, v) -> item.setStoneCost(v));
+        stoneCol.setCellValueFactory(c -> c.getValue().stoneCostProperty());
+        setupEditCol(stoneCol, new MoneyStringConverter(), (item, v) -> item.setStoneCost(v));
 
-        wagesCol.setCellValueFactory(new PropertyValueFactory<>("wages"));
-        setupDoubleCol(wagesCol, (item, v) -> item.setWages(v));
+        wagesCol.setCellValueFactory(c -> c.getValue().wagesProperty());
+        setupEditCol(wagesCol, new MoneyStringConverter(), (item, v) -> item.setWages(v));
 
-        totalWtCol.setCellValueFactory(new PropertyValueFactory<>("displayTotalWeight"));
+        // Calculated columns - bound to the item, so a recalculated line repaints by itself
+        totalWtCol.setCellValueFactory(c -> c.getValue().displayTotalWeightProperty());
         totalWtCol.setCellFactory(tc -> new TableCell<InvoiceItem, Double>() {
             @Override protected void updateItem(Double v, boolean e) {
                 super.updateItem(v, e);
-                setText((e || v == null) ? null : String.format("%.2f", v));
+                setText((e || v == null) ? null : Decimals.two(v));
             }
         });
 
-        // Total Column (Calculated & Formatted)
-        totalCol.setCellValueFactory(new PropertyValueFactory<>("lineTotal"));
-        // Format to 2 decimal places
-        totalCol.setCellFactory(tc -> new TableCell<InvoiceItem, Double>() {
-            @Override
-            protected void updateItem(Double value, boolean empty) {
-                super.updateItem(value, empty);
-                if (empty || value == null) {
-                    setText(null);
-                } else {
-                    setText(String.format("%.2f", value));
-                }
-            }
-        });
+        // Making charge and Total Columns (Money formats itself to 2 decimal places)
+        makingCol.setCellValueFactory(c -> c.getValue().makingChargeProperty());
+        makingCol.setCellFactory(tc -> new MoneyCell());
+        totalCol.setCellValueFactory(c -> c.getValue().lineTotalProperty());
+        totalCol.setCellFactory(tc -> new MoneyCell());
 
-        // 3. Footer Listeners
-        addListeners(oldGoldField, discountField, gstField, advanceField, rate22kField, rate24kField);
-        onNewInvoice();
+        // 3. Live Preview (customer fields only change the preview; money fields go through the totals)
+        preview = new InvoicePreview(previewImage, pdfService, backgroundExecutor, () -> buildInvoice("PREVIEW", true));
+        for (TextField f : new TextField[]{customerNameField, phoneField, customerAddressField, soldByField}) {
+            f.textProperty().addListener((obs, old, nev) -> formChanged());
+        }
+
+        // 4. Repeat customers - pick one to fill in name, phone and address
+        nameAutocomplete = new CustomerAutocomplete(customerNameField, customerService::findByNamePrefix, this::fillCustomer);
+        phoneAutocomplete = new CustomerAutocomplete(phoneField, customerService::findByPhonePrefix, this::fillCustomer);
+
+        // 5. Footer Listeners - each field only recomputes what depends on it
+        onMoneyChange(oldGoldField, totals::setOldGold);
+        onMoneyChange(discountField, totals::setDiscount);
+        gstField.textProperty().addListener((obs, old, nev) -> totals.setGstPercent(parse(nev)));
+        onMoneyChange(advanceField, totals::setAdvance);
+
+        // Rate fields only show and take rates: lines are priced from the rate history (rateNow).
+        // A typed rate goes into it when the user is done typing, not on every key
+        for (TextField f : rateFields.values()) {
+            f.setOnAction(e -> saveRates());
+            f.focusedProperty().addListener((obs, was, focused) -> { if (!focused) saveRates(); });
+        }
+        // Rates imported from the drop folder or typed on another till show up here
+        goldRateService.addRateListener((purity, rate) -> Platform.runLater(() -> showRate(purity, rate)));
+
+        totals.subTotalProperty().addListener((obs, old, v) -> subTotalLabel.setText(v.toString()));
+        totals.grandTotalProperty().addListener((obs, old, v) -> grandTotalLabel.setText(v.toString()));
+        totals.balanceProperty().addListener((obs, old, v) -> { balanceLabel.setText(v.toString()); formChanged(); });
+
+        clearForm();
+
+        // 6. Unsaved invoice from a crash or power cut - put it back
+        recoverDraft();
     }
 
-    private void setupDoubleCol(TableColumn<InvoiceItem, Double> col, BiConsumer<InvoiceItem, Double> setter) {
+    private <T> void setupEditCol(TableColumn<InvoiceItem, T> col, StringConverter<T> converter, BiConsumer<InvoiceItem, T> setter) {
         // Use the new EditCell instead of standard TextFieldTableCell
-        col.setCellFactory(c -> new EditCell<>(new DoubleStringConverter()));
+        col.setCellFactory(c -> new EditCell<>(converter));
         col.setOnEditCommit(e -> {
             setter.accept(e.getRowValue(), e.getNewValue());
-            recalculateAll();
+            itemEdited(e);
+        });
+    }
+
+    // One row changed: recalculate just that line (its cells update through the item's properties)
+    private void itemEdited(TableColumn.CellEditEvent<InvoiceItem, ?> e) {
+        totals.itemChanged(e.getRowValue());
+        formChanged();
+    }
+
+    // Something the invoice shows changed: re-render the preview and journal the form (queued, never blocks)
+    private void formChanged() {
+        preview.requestRender();
+        if (journaling) draftJournal.write(currentDraft());
+    }
+
+    private void onMoneyChange(TextField field, Consumer<Money> setter) {
+        field.textProperty().addListener((obs, old, nev) -> setter.accept(Money.parse(nev)));
+        setter.accept(Money.parse(field.getText()));
+    }
+
+    private void addRateField(String purity) {
+        Label label = new Label("Rate (" + purity + "):");
+        label.setStyle("-fx-text-fill: #800000; -fx-font-weight: bold;");
+        TextField field = new TextField(rateNow(purity).toString());
+        field.setPrefWidth(100);
+        HBox box = new HBox(10, label, field);
+        box.setAlignment(Pos.CENTER_LEFT);
+        ratesPane.getChildren().add(box);
+        rateFields.put(purity, field);
+    }
+
+    // The rate in force now for that purity, as the lines are priced
+    private Money rateNow(String purity) {
+        Money rate = goldRateService.rateAt(purity, LocalDateTime.now());
+        return rate != null ? rate : settingsService.getRate(purity); // History not loaded yet (or still empty)
+    }
+
+    // In force on this till at once; kept by SettingsService and recorded in the history in the background
+    private void saveRates() {
+        rateFields.forEach((purity, field) -> {
+            Money rate = Money.parse(field.getText());
+            settingsService.setRate(purity, rate);
+            goldRateService.setCurrentRate(purity, rate);
+            totals.rateChanged(purity);
         });
     }
 
-    private void addListeners(TextField... fields) {
-        for (TextField f : fields) { f.textProperty().addListener((obs, old, nev) -> recalculateAll()); }
+    // Lines follow the new rate; the field only while the user is not typing a rate - theirs wins
+    private void showRate(String purity, Money rate) {
+        totals.rateChanged(purity);
+        TextField field = rateFields.get(purity);
+        if (field == null || field.isFocused() || rate.equals(Money.parse(field.getText()))) return;
+        field.setText(rate.toString());
+        settingsService.setRate(purity, rate);
     }
 
     @FXML
     public void onNewInvoice() {
-        customerNameField.clear(); phoneField.clear(); customerAddressField.clear();
-        oldGoldField.setText("0"); discountField.setText("0"); gstField.setText("0"); advanceField.setText("0");
-        items.clear();
-        items.add(new InvoiceItem());
-        itemTable.setItems(items);
-        recalculateAll();
+        InvoiceDraft draft = currentDraft();
+        if (journaling && !draft.isBlank()) {
+            log.info("Unsaved invoice cleared: {} ({} lines)", draft.customerName(), draft.lines().size());
+            draftJournal.markDiscarded(draftId); // Its last snapshot stays in the journal file
+        }
+        clearForm();
     }
 
-    @FXML
-    public void onViewHistory() {
-        Stage historyStage = new Stage();
-        historyStage.setTitle("Sales History");
+    private void clearForm() {
+        boolean wasJournaling = journaling;
+        journaling = false; // Clearing the fields is not an edit
+        draftId = draftJournal.newDraftId();
+        try {
+            customerNameField.clear(); phoneField.clear(); customerAddressField.clear();
+            oldGoldField.setText("0"); discountField.setText("0"); gstField.setText("0"); advanceField.setText("0");
+            items.clear();
+            items.add(new InvoiceItem());
+            itemTable.setItems(items);
+            recalculateAll();
+        } finally {
+            journaling = wasJournaling;
+        }
+    }
 
-        TableView<Invoice> historyTable = new TableView<>();
-        ObservableList<Invoice> historyData = FXCollections.observableArrayList(invoiceRepository.findAll());
+    // --- Draft Recovery ---
 
-        TableColumn<Invoice, String> dateCol = new TableColumn<>("Date");
-        dateCol.setCellValueFactory(cell -> new SimpleStringProperty(cell.getValue().getDate().toString()));
+    // Reading the journal is file I/O, so it runs in the background; the form is filled in on the FX thread
+    private void recoverDraft() {
+        Task<Optional<InvoiceDraft>> task = new Task<>() {
+            @Override
+            protected Optional<InvoiceDraft> call() throws Exception {
+                return draftJournal.recover();
+            }
+        };
+        task.setOnSucceeded(e -> {
+            task.getValue().ifPresent(this::restoreDraft);
+            journaling = true;
+        });
+        task.setOnFailed(e -> {
+            log.error("Could not open the draft journal - unsaved invoices will not be recovered", task.getException());
+            new Alert(Alert.AlertType.WARNING, "Crash protection is off: the invoice being typed will NOT be recovered "
+                    + "after a crash or power cut until the app is restarted.\n\n" + task.getException().getMessage()).showAndWait();
+        });
+        backgroundExecutor.execute(task);
+    }
 
-        TableColumn<Invoice, String> invCol = new TableColumn<>("Invoice No");
-        invCol.setCellValueFactory(cell -> new SimpleStringProperty(cell.getValue().getInvoiceNumber()));
+    private void restoreDraft(InvoiceDraft draft) {
+        if (draft.isBlank()) {
+            draftJournal.markDiscarded(draft.id());
+            return;
+        }
+        if (!currentDraft().isBlank()) { // Started typing in the first moment after startup - theirs wins
+            log.warn("Unsaved draft of {} not restored: the form is already in use", draft.savedAt());
+            draftJournal.markDiscarded(draft.id()); // Still in the journal file
+            return;
+        }
+        draftId = draft.id(); // Saving it closes it
+        nameAutocomplete.fill(draft.customerName());
+        phoneAutocomplete.fill(draft.customerPhone());
+        customerAddressField.setText(text(draft.customerAddress()));
+        if (draft.soldBy() != null && !draft.soldBy().isBlank()) soldByField.setText(draft.soldBy());
+        oldGoldField.setText(text(draft.oldGold()));
+        discountField.setText(text(draft.discount()));
+        gstField.setText(text(draft.gstPercent()));
+        advanceField.setText(text(draft.advance()));
+
+        List<InvoiceItem> restored = new ArrayList<>(draft.lines().size());
+        for (InvoiceDraft.Line line : draft.lines()) restored.add(line.toItem());
+        if (restored.isEmpty()) restored.add(new InvoiceItem());
+        items.setAll(restored); // Priced at today's rates by InvoiceTotals
+        recalculateAll();
 
-        TableColumn<Invoice, String> custCol = new TableColumn<>("Customer");
-        custCol.setCellValueFactory(cell -> new SimpleStringProperty(cell.getValue().getCustomerName()));
+        saveStatusLabel.setText("Recovered unsaved invoice from " + draft.savedAt().format(DateTimeFormatter.ofPattern("dd MMM HH:mm")));
+    }
 
-        TableColumn<Invoice, String> totalCol = new TableColumn<>("Total ($)");
-        totalCol.setCellValueFactory(cell -> new SimpleStringProperty(String.format("%.2f", cell.getValue().getGrandTotal())));
+    // Field text as it was typed
+    private InvoiceDraft currentDraft() {
+        List<InvoiceDraft.Line> lines = new ArrayList<>(items.size());
+        for (InvoiceItem item : items) lines.add(InvoiceDraft.Line.of(item));
+        return new InvoiceDraft(draftId, LocalDateTime.now(),
+                customerNameField.getText(), phoneField.getText(), customerAddressField.getText(), soldByField.getText(),
+                oldGoldField.getText(), discountField.getText(), gstField.getText(), advanceField.getText(), lines);
+    }
 
-        historyTable.getColumns().addAll(dateCol, invCol, custCol, totalCol);
-        historyTable.setItems(historyData);
-        historyTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+    private static String text(String s) {
+        return s == null ? "" : s;
+    }
 
-        historyTable.setRowFactory(tv -> {
-            TableRow<Invoice> row = new TableRow<>();
-            row.setOnMouseClicked(event -> {
-                if (event.getClickCount() == 2 && (! row.isEmpty()) ) {
-                    try { pdfService.generatePdf(row.getItem()); } catch (Exception e) {}
-                }
-            });
-            return row;
+    private void fillCustomer(Customer customer) {
+        nameAutocomplete.fill(customer.getName());
+        phoneAutocomplete.fill(customer.getPhone());
+        customerAddressField.setText(customer.getAddress());
+    }
+
+    @FXML
+    public void onViewHistory() {
+        new SalesHistoryWindow(invoiceRepository, invoiceSearchService, backgroundExecutor,
+                meterRegistry.timer("gj.history.page"), this::reopenPdf).show();
+    }
+
+    // Only now load the full invoice with its items; the saved PDF is reused if still valid
+    private void reopenPdf(InvoiceSummary summary) {
+        Task<Void> task = new Task<>() {
+            @Override
+            protected Void call() throws Exception {
+                Invoice invoice = invoiceRepository.findWithItemsById(summary.id())
+                        .orElseThrow(() -> new IllegalStateException("Invoice " + summary.invoiceNumber() + " no longer exists"));
+                pdfService.openPdf(invoice);
+                return null;
+            }
+        };
+        task.setOnFailed(e -> {
+            log.error("Could not open invoice {}", summary.invoiceNumber(), task.getException());
+            new Alert(Alert.AlertType.ERROR, "Could not open invoice " + summary.invoiceNumber() + "\n\n"
+                    + task.getException().getMessage()).showAndWait();
         });
+        backgroundExecutor.execute(task);
+    }
 
-        VBox layout = new VBox(new Label("Double-click a row to open PDF"), historyTable);
-        historyStage.setScene(new Scene(layout, 600, 400));
-        historyStage.show();
+    @FXML
+    public void onViewReports() {
+        new ReportsWindow(reportService, csvExportService, backgroundExecutor).show();
     }
 
     @FXML
-    public void onSaveAndPrint() {
-        try {
-            Invoice invoice = new Invoice();
-            invoice.setInvoiceNumber("GJ-" + System.currentTimeMillis());
-            invoice.setCustomerName(customerNameField.getText());
-            invoice.setCustomerPhone(phoneField.getText());
-            invoice.setCustomerAddress(customerAddressField.getText());
-            invoice.setSoldBy(soldByField.getText());
-            invoice.setDate(LocalDate.now());
-
-            invoice.setRate22k(parse(rate22kField.getText()));
-            invoice.setRate24k(parse(rate24kField.getText()));
-            invoice.setOldGoldAmount(parse(oldGoldField.getText()));
-            invoice.setDiscountAmount(parse(discountField.getText()));
-            invoice.setGstPercent(parse(gstField.getText()));
-            invoice.setAdvancePayment(parse(advanceField.getText()));
+    public void onViewDiagnostics() {
+        new DiagnosticsWindow(meterRegistry).show();
+    }
 
-            recalculateAll();
-            invoice.setSubTotal(parse(subTotalLabel.getText()));
-            invoice.setGrandTotal(parse(grandTotalLabel.getText()));
-            invoice.setBalanceDue(parse(balanceLabel.getText()));
+    @FXML
+    public void onSaveAndPrint() {
+        recalculateAll();
+        // Detached copies: New Invoice / Add Row stay usable and must not change the list Hibernate and the PDF are reading
+        Invoice invoice = buildInvoice(null, true); // Numbered by InvoiceService.save
+        long savedDraftId = draftId; // New Invoice during the save gives the form a new one
 
-            for(InvoiceItem i : items) {
-                if(i.getDescription() != null && !i.getDescription().isEmpty()) invoice.addItem(i);
+        // Save first (committed), then render - all in the background
+        AtomicBoolean committed = new AtomicBoolean();
+        Task<Invoice> task = new Task<>() {
+            @Override
+            protected Invoice call() throws Exception {
+                updateMessage("Saving...");
+                Invoice saved = invoiceService.save(invoice);
+                committed.set(true);
+                draftJournal.markSaved(savedDraftId); // Right away - a crash while printing must not bring it back as unsaved
+                updateMessage("Printing " + saved.getInvoiceNumber() + "...");
+                pdfService.generatePdf(saved);
+                return saved;
             }
+        };
 
-            invoiceRepository.save(invoice);
-            pdfService.generatePdf(invoice);
+        // No second save of the same form while this one runs
+        saveButton.setDisable(true);
+        itemTable.setEditable(false);
+        saveStatusLabel.textProperty().bind(task.messageProperty());
 
+        task.setOnSucceeded(e -> {
+            finishSave();
+            saveStatusLabel.setText("Saved " + task.getValue().getInvoiceNumber());
+            if (draftId != savedDraftId) return; // The next invoice is already being typed - leave it alone
             Alert alert = new Alert(Alert.AlertType.INFORMATION, "Saved! Start new invoice?");
             alert.showAndWait();
-            onNewInvoice();
+            clearForm();
+        });
+        task.setOnFailed(e -> {
+            finishSave();
+            Throwable error = task.getException();
+            log.error("Save & Print failed for {} ({})", invoice.getCustomerName(), invoice.getInvoiceNumber(), error);
+            String what = committed.get() ? "The invoice was saved, but the PDF could not be created." : "The invoice was NOT saved.";
+            saveStatusLabel.setText("Save failed");
+            new Alert(Alert.AlertType.ERROR, what + "\n\n" + error.getMessage()).showAndWait();
+        });
+        backgroundExecutor.execute(task);
+    }
+
+    /**
+     * Reads the form into a new Invoice.
+     * @param copyItems true = detached item copies (for background use while the user keeps editing)
+     */
+    private Invoice buildInvoice(String invoiceNumber, boolean copyItems) {
+        Invoice invoice = new Invoice();
+        invoice.setInvoiceNumber(invoiceNumber);
+        invoice.setCustomerName(customerNameField.getText());
+        invoice.setCustomerPhone(phoneField.getText());
+        invoice.setCustomerAddress(customerAddressField.getText());
+        invoice.setSoldBy(soldByField.getText());
+        invoice.setDate(LocalDate.now());
+
+        // Each line keeps the rate of its own purity; the two invoice columns are still filled as before
+        invoice.setRate22k(totals.getRate("22K"));
+        invoice.setRate24k(totals.getRate("24K"));
+        invoice.setOldGoldAmount(Money.parse(oldGoldField.getText()));
+        invoice.setDiscountAmount(Money.parse(discountField.getText()));
+        invoice.setGstPercent(parse(gstField.getText()));
+        invoice.setAdvancePayment(Money.parse(advanceField.getText()));
+
+        for(InvoiceItem i : items) {
+            if(i.getDescription() != null && !i.getDescription().isEmpty()) invoice.addItem(copyItems ? i.copy() : i);
+        }
 
-        } catch (Exception e) { e.printStackTrace(); }
+        // Totals come from the model (line totals are kept current by InvoiceTotals)
+        invoice.calculateTotals();
+        return invoice;
+    }
+
+    private void finishSave() {
+        saveStatusLabel.textProperty().unbind();
+        saveButton.setDisable(false);
+        itemTable.setEditable(true);
     }
 
     private void recalculateAll() {
-        try {
-            double r22 = parse(rate22kField.getText());
-            double r24 = parse(rate24kField.getText());
-            prefs.put("rate22k", rate22kField.getText());
-            prefs.put("rate24k", rate24kField.getText());
-
-            double subTotal = 0;
-            for (InvoiceItem item : items) {
-                if (item.getPurity() == null) item.setPurity("22K");
-                if (item.getWeightUnit() == null) item.setWeightUnit("Lal");
-                item.calculateLineTotal(r22, r24);
-                subTotal += item.getLineTotal();
-            }
-            itemTable.refresh();
-
-            double oldGold = parse(oldGoldField.getText());
-            double discount = parse(discountField.getText());
-            double gstPercent = parse(gstField.getText());
-            double advance = parse(advanceField.getText());
-
-            double taxable = subTotal - oldGold;
-            double gstAmount = taxable * (gstPercent / 100.0);
-            double grandTotal = taxable + gstAmount - discount;
-            double balance = grandTotal - advance;
-
-            subTotalLabel.setText(format(subTotal));
-            grandTotalLabel.setText(format(grandTotal));
-            balanceLabel.setText(format(balance));
-        } catch (Exception ignored) {}
+        meterRegistry.timer("gj.totals.recalculate").record(totals::recalculateAll);
+        subTotalLabel.setText(totals.subTotalProperty().get().toString());
+        grandTotalLabel.setText(totals.grandTotalProperty().get().toString());
+        balanceLabel.setText(totals.balanceProperty().get().toString());
+        preview.requestRender();
     }
 
     @FXML public void addEmptyRow() { items.add(new InvoiceItem()); }
     private double parse(String s) { try { return Double.parseDouble(s); } catch (Exception e) { return 0; } }
-    private String format(double d) { return String.format("%.2f", d); }
     interface BiConsumer<T, U> { void accept(T t, U u); }
 
+    private static class MoneyCell extends TableCell<InvoiceItem, Money> {
+        @Override
+        protected void updateItem(Money value, boolean empty) {
+            super.updateItem(value, empty);
+            setText((empty || value == null) ? null : value.toString());
+        }
+    }
+
     /**
      * CUSTOM CELL CLASS: Commits edits on Focus Loss (Tab/Click away)
      */
@@ -265,7 +499,9 @@ public class InvoiceController {
         public void startEdit() {
             if (!isEmpty()) {
                 super.startEdit();
-                createTextField();
+                if (textField == null) createTextField(); // Once per cell - cells are reused while scrolling
+                textField.setText(converter.toString(getItem()));
+                textField.setMinWidth(this.getWidth() - this.getGraphicTextGap() * 2);
                 setText(null);
                 setGraphic(textField);
                 // FORCE FOCUS & CURSOR
@@ -304,8 +540,7 @@ public class InvoiceController {
         }
 
         private void createTextField() {
-            textField = new TextField(converter.toString(getItem()));
-            textField.setMinWidth(this.getWidth() - this.getGraphicTextGap() * 2);
+            textField = new TextField();
 
             // 1. Commit on ENTER
             textField.setOnKeyPressed(t -> {
@@ -318,7 +553,7 @@ public class InvoiceController {
 
             // 2. Commit on FOCUS LOST (Click away or Tab)
             textField.focusedProperty().addListener((obs, oldVal, newVal) -> {
-                if (!newVal) { // Focus lost
+                if (!newVal && isEditing()) { // Focus lost
                     try {
                         commitEdit(converter.fromString(textField.getText()));
                     } catch (Exception e) {
@@ -0,0 +1,82 @@
+package com.gorkha.gorkhajewellery.ui;
+
+import com.gorkha.gorkhajewellery.model.Invoice;
+import com.gorkha.gorkhajewellery.service.PdfService;
+import javafx.animation.PauseTransition;
+import javafx.concurrent.Task;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.util.Duration;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * LIVE PREVIEW: Renders the real invoice PDF in memory and shows page 1 as an image.
+ * Edits are debounced; rendering happens on a background thread (no file, no external viewer).
+ */
+@Slf4j
+class InvoicePreview {
+
+    private static final Duration DELAY = Duration.millis(400);
+    private static final float RENDER_SCALE = 1.0f; // 72 dpi - the ImageView scales it to fit
+
+    private final ImageView imageView;
+    private final PdfService pdfService;
+    private final Executor executor;
+    private final Supplier<Invoice> snapshot; // Called on the FX thread; must return a detached copy
+
+    private final PauseTransition debounce = new PauseTransition(DELAY);
+    private int generation; // Only the newest render is shown
+
+    InvoicePreview(ImageView imageView, PdfService pdfService, Executor executor, Supplier<Invoice> snapshot) {
+        this.imageView = imageView;
+        this.pdfService = pdfService;
+        this.executor = executor;
+        this.snapshot = snapshot;
+        debounce.setOnFinished(e -> render());
+    }
+
+    /** Something changed - re-render once the user pauses typing. */
+    void requestRender() {
+        generation++;
+        debounce.playFromStart();
+    }
+
+    private void render() {
+        int requested = generation;
+        Invoice invoice = snapshot.get();
+
+        Task<WritableImage> task = new Task<>() {
+            @Override
+            protected WritableImage call() throws Exception {
+                byte[] pdf = pdfService.renderToBytes(invoice, PdfService.RenderSource.PREVIEW);
+                try (PDDocument document = Loader.loadPDF(pdf)) {
+                    BufferedImage page = new PDFRenderer(document).renderImage(0, RENDER_SCALE, ImageType.RGB);
+                    return toFxImage(page);
+                }
+            }
+        };
+        task.setOnSucceeded(e -> {
+            if (requested == generation) imageView.setImage(task.getValue());
+        });
+        task.setOnFailed(e -> log.warn("Preview render failed", task.getException()));
+        executor.execute(task);
+    }
+
+    // Copies the pixels straight into a WritableImage (no javafx-swing dependency)
+    private static WritableImage toFxImage(BufferedImage image) {
+        int w = image.getWidth(), h = image.getHeight();
+        int[] pixels = image.getRGB(0, 0, w, h, null, 0, w);
+        WritableImage fxImage = new WritableImage(w, h);
+        fxImage.getPixelWriter().setPixels(0, 0, w, h, PixelFormat.getIntArgbInstance(), pixels, 0, w);
+        return fxImage;
+    }
+}
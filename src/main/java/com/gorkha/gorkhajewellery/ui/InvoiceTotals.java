@@ -0,0 +1,144 @@
+package com.gorkha.gorkhajewellery.ui;
+
+import com.gorkha.gorkhajewellery.model.InvoiceItem;
+import com.gorkha.gorkhajewellery.model.Money;
+import com.gorkha.gorkhajewellery.pricing.LinePricer;
+import com.gorkha.gorkhajewellery.pricing.PricingRules;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * INCREMENTAL TOTALS: Keeps the invoice math up to date without re-running every line.
+ *
+ *   line edit      -> that line only, subtotal adjusted by the difference
+ *   purity rate    -> only lines of that purity (rates come from rateSource - the rate history)
+ *   footer field   -> only the footer values that depend on it
+ *
+ * Dependency chain: lines -> subTotal -> (oldGold, gst, discount) -> grandTotal -> (advance) -> balance
+ * (Same formula as Invoice.calculateTotals, which is what gets saved.)
+ */
+class InvoiceTotals {
+
+    private final ObservableList<InvoiceItem> items;
+    private final String defaultPurity; // For new lines
+    private final PricingRules rules;
+    private final Function<String, Money> rateSource; // Purity -> rate in force now (null = none)
+
+    private final Map<String, Money> rates = new HashMap<>(); // Rates the lines are priced at (missing = ask rateSource)
+    private Money oldGold = Money.ZERO, discount = Money.ZERO, advance = Money.ZERO;
+    private double gstPercent;
+
+    // Cents are exact, so adjusting by deltas never drifts from a full re-sum
+    private final ReadOnlyObjectWrapper<Money> subTotal = new ReadOnlyObjectWrapper<>(Money.ZERO);
+    private final ReadOnlyObjectWrapper<Money> grandTotal = new ReadOnlyObjectWrapper<>(Money.ZERO);
+    private final ReadOnlyObjectWrapper<Money> balance = new ReadOnlyObjectWrapper<>(Money.ZERO);
+
+    InvoiceTotals(ObservableList<InvoiceItem> items, String defaultPurity, PricingRules rules,
+                  Function<String, Money> rateSource) {
+        this.items = items;
+        this.defaultPurity = defaultPurity;
+        this.rules = rules;
+        this.rateSource = rateSource;
+        items.addListener((ListChangeListener<InvoiceItem>) change -> {
+            while (change.next()) {
+                if (change.wasPermutated()) continue;
+
+                long delta = 0;
+                for (InvoiceItem removed : change.getRemoved()) delta -= removed.getLineTotal().getCents();
+                for (InvoiceItem added : change.getAddedSubList()) {
+                    calculate(added);
+                    delta += added.getLineTotal().getCents();
+                }
+                addToSubTotal(delta);
+            }
+        });
+    }
+
+    ReadOnlyObjectProperty<Money> subTotalProperty() { return subTotal.getReadOnlyProperty(); }
+    ReadOnlyObjectProperty<Money> grandTotalProperty() { return grandTotal.getReadOnlyProperty(); }
+    ReadOnlyObjectProperty<Money> balanceProperty() { return balance.getReadOnlyProperty(); }
+
+    /** One line was edited: recalculate it and adjust the subtotal by the difference. */
+    void itemChanged(InvoiceItem item) {
+        long before = item.getLineTotal().getCents();
+        calculate(item);
+        addToSubTotal(item.getLineTotal().getCents() - before);
+    }
+
+    /** The rate in force for that purity may have changed: recalculates only its lines (their cells update themselves). */
+    void rateChanged(String purity) {
+        Money rate = currentRate(purity);
+        if (rate.equals(rates.put(purity, rate))) return;
+        recalculatePurity(purity);
+    }
+
+    Money getRate(String purity) {
+        return rates.computeIfAbsent(purity, this::currentRate);
+    }
+
+    void setOldGold(Money value) { oldGold = value; updateGrandTotal(); }
+    void setDiscount(Money value) { discount = value; updateGrandTotal(); }
+    void setGstPercent(double value) { gstPercent = value; updateGrandTotal(); }
+    void setAdvance(Money value) { advance = value; updateBalance(); }
+
+    /** Full pass - only needed when everything is replaced (e.g. New Invoice). */
+    void recalculateAll() {
+        rates.clear(); // Fresh rates from the source
+        long sum = 0;
+        for (InvoiceItem item : items) {
+            calculate(item);
+            sum += item.getLineTotal().getCents();
+        }
+        subTotal.set(Money.ofCents(sum));
+        updateGrandTotal();
+    }
+
+    private void recalculatePurity(String purity) {
+        long delta = 0;
+        for (InvoiceItem item : items) {
+            if (!purity.equals(item.getPurity())) continue;
+            long before = item.getLineTotal().getCents();
+            calculate(item);
+            delta += item.getLineTotal().getCents() - before;
+        }
+        addToSubTotal(delta);
+    }
+
+    private Money currentRate(String purity) {
+        Money rate = rateSource.apply(purity);
+        return rate == null ? Money.ZERO : rate;
+    }
+
+    private void calculate(InvoiceItem item) {
+        if (item.getPurity() == null) item.setPurity(defaultPurity);
+        if (item.getWeightUnit() == null) item.setWeightUnit("Lal");
+        LinePricer pricer = item.getPricer(); // Cleared by the item when its purity or category changes
+        if (pricer == null) {
+            pricer = rules.pricer(item.getPurity(), item.getCategory());
+            item.setPricer(pricer);
+        }
+        item.calculateLineTotal(pricer, getRate(item.getPurity()));
+    }
+
+    private void addToSubTotal(long deltaCents) {
+        if (deltaCents == 0) return;
+        subTotal.set(Money.ofCents(subTotal.get().getCents() + deltaCents));
+        updateGrandTotal();
+    }
+
+    private void updateGrandTotal() {
+        Money taxable = subTotal.get().minus(oldGold);
+        grandTotal.set(taxable.plus(taxable.percent(gstPercent)).minus(discount));
+        updateBalance();
+    }
+
+    private void updateBalance() {
+        balance.set(grandTotal.get().minus(advance));
+    }
+}
@@ -0,0 +1,20 @@
+package com.gorkha.gorkhajewellery.ui;
+
+import com.gorkha.gorkhajewellery.model.Money;
+import javafx.util.StringConverter;
+
+/**
+ * Table cell editing for Money columns ("12.50" <-> Money).
+ */
+class MoneyStringConverter extends StringConverter<Money> {
+
+    @Override
+    public String toString(Money money) {
+        return money == null ? "" : money.toString();
+    }
+
+    @Override
+    public Money fromString(String text) {
+        return Money.parse(text);
+    }
+}
@@ -0,0 +1,176 @@
+package com.gorkha.gorkhajewellery.ui;
+
+import com.gorkha.gorkhajewellery.model.Money;
+import com.gorkha.gorkhajewellery.model.SalesTotals;
+import com.gorkha.gorkhajewellery.repository.SalesRollupRepository.PurityRow;
+import com.gorkha.gorkhajewellery.repository.SalesRollupRepository.StaffRow;
+import com.gorkha.gorkhajewellery.service.CsvExportService;
+import com.gorkha.gorkhajewellery.service.ReportService;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.concurrent.Task;
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.control.*;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.stage.DirectoryChooser;
+import javafx.stage.Stage;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * REPORTS: Daily / monthly sales, weight per purity and sales per staff for a date range.
+ * Reads only the rollup tables, in the background.
+ */
+@Slf4j
+class ReportsWindow {
+
+    private final ReportService reportService;
+    private final CsvExportService csvExportService;
+    private final Executor executor;
+
+    private final TableView<SalesTotals> totalsTable = new TableView<>();
+    private final TableView<PurityRow> purityTable = new TableView<>();
+    private final TableView<StaffRow> staffTable = new TableView<>();
+
+    private final ProgressBar exportProgress = new ProgressBar(0);
+    private final Label exportStatus = new Label();
+
+    ReportsWindow(ReportService reportService, CsvExportService csvExportService, Executor executor) {
+        this.reportService = reportService;
+        this.csvExportService = csvExportService;
+        this.executor = executor;
+    }
+
+    void show() {
+        DatePicker fromPicker = new DatePicker(LocalDate.now().withDayOfMonth(1));
+        DatePicker toPicker = new DatePicker(LocalDate.now());
+        ComboBox<String> periodBox = new ComboBox<>();
+        periodBox.getItems().addAll("Daily", "Monthly");
+        periodBox.setValue("Daily");
+        Button runButton = new Button("Show");
+        runButton.getStyleClass().add("accent");
+        Button exportButton = new Button("Export CSV");
+        exportButton.getStyleClass().add("button-outlined");
+
+        runButton.setOnAction(e -> load(fromPicker.getValue(), toPicker.getValue(), "Monthly".equals(periodBox.getValue())));
+        exportButton.setOnAction(e -> exportCsv(exportButton, fromPicker.getValue(), toPicker.getValue()));
+
+        // Totals per day / month
+        totalsTable.getColumns().addAll(
+                column("Period", SalesTotals::period),
+                column("Invoices", t -> String.valueOf(t.invoiceCount())),
+                column("Subtotal", t -> t.subTotal().toString()),
+                column("Old Gold", t -> t.oldGold().toString()),
+                column("Discount", t -> t.discount().toString()),
+                column("GST", t -> t.gst().toString()),
+                column("Total", t -> t.grandTotal().toString()));
+        totalsTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+
+        purityTable.getColumns().addAll(
+                column("Purity", PurityRow::getPurity),
+                column("Weight (Lal)", p -> String.format("%.2f", p.getWeightLal())),
+                column("Amount", p -> Money.ofCents(p.getAmountCents()).toString()));
+        purityTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+
+        staffTable.getColumns().addAll(
+                column("Sold By", StaffRow::getSoldBy),
+                column("Invoices", s -> String.valueOf(s.getInvoiceCount())),
+                column("Total", s -> Money.ofCents(s.getGrandTotalCents()).toString()));
+        staffTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+
+        HBox controls = new HBox(10, new Label("From:"), fromPicker, new Label("To:"), toPicker, periodBox, runButton, exportButton);
+        exportProgress.setVisible(false);
+        HBox exportRow = new HBox(10, exportProgress, exportStatus);
+        HBox breakdowns = new HBox(10, purityTable, staffTable);
+        HBox.setHgrow(purityTable, Priority.ALWAYS);
+        HBox.setHgrow(staffTable, Priority.ALWAYS);
+        breakdowns.setPrefHeight(180);
+
+        VBox layout = new VBox(10, controls, totalsTable, new Label("Gold Sold by Purity  /  Sales by Staff"), breakdowns, exportRow);
+        VBox.setVgrow(totalsTable, Priority.ALWAYS);
+        layout.setPadding(new Insets(15));
+
+        Stage stage = new Stage();
+        stage.setTitle("Sales Reports");
+        stage.setScene(new Scene(layout, 900, 600));
+        stage.show();
+
+        runButton.fire();
+    }
+
+    private void load(LocalDate from, LocalDate to, boolean monthly) {
+        if (from == null || to == null) return;
+        Task<Void> task = new Task<>() {
+            List<SalesTotals> totals;
+            List<PurityRow> purity;
+            List<StaffRow> staff;
+
+            @Override
+            protected Void call() {
+                totals = monthly ? reportService.monthly(from, to) : reportService.daily(from, to);
+                purity = reportService.byPurity(from, to);
+                staff = reportService.byStaff(from, to);
+                return null;
+            }
+
+            @Override
+            protected void succeeded() {
+                totalsTable.getItems().setAll(totals);
+                purityTable.getItems().setAll(purity);
+                staffTable.getItems().setAll(staff);
+            }
+        };
+        task.setOnFailed(e -> log.error("Report failed", task.getException()));
+        executor.execute(task);
+    }
+
+    // Invoices + line items for the selected range, streamed to two CSV files
+    private void exportCsv(Button button, LocalDate from, LocalDate to) {
+        if (from == null || to == null) return;
+        DirectoryChooser chooser = new DirectoryChooser();
+        chooser.setTitle("Export CSV to...");
+        File folder = chooser.showDialog(button.getScene().getWindow());
+        if (folder == null) return;
+
+        Task<CsvExportService.Result> task = new Task<>() {
+            @Override
+            protected CsvExportService.Result call() throws Exception {
+                return csvExportService.export(from, to, folder.toPath(), (done, total) -> updateProgress(done, total));
+            }
+        };
+        button.setDisable(true);
+        exportProgress.setVisible(true);
+        exportProgress.progressProperty().bind(task.progressProperty());
+        exportStatus.setText("Exporting...");
+        task.setOnSucceeded(e -> {
+            CsvExportService.Result result = task.getValue();
+            exportStatus.setText("Exported " + result.invoices() + " invoices, " + result.items() + " items to " + folder);
+            finishExport(button);
+        });
+        task.setOnFailed(e -> {
+            log.error("CSV export failed", task.getException());
+            exportStatus.setText("Export failed: " + task.getException().getMessage());
+            finishExport(button);
+        });
+        executor.execute(task);
+    }
+
+    private void finishExport(Button button) {
+        button.setDisable(false);
+        exportProgress.progressProperty().unbind();
+        exportProgress.setVisible(false);
+    }
+
+    private static <T> TableColumn<T, String> column(String title, Function<T, String> value) {
+        TableColumn<T, String> col = new TableColumn<>(title);
+        col.setCellValueFactory(cell -> new SimpleStringProperty(value.apply(cell.getValue())));
+        return col;
+    }
+}
@@ -0,0 +1,173 @@
+package com.gorkha.gorkhajewellery.ui;
+
+import com.gorkha.gorkhajewellery.model.InvoiceSummary;
+import com.gorkha.gorkhajewellery.repository.InvoiceRepository;
+import com.gorkha.gorkhajewellery.service.InvoiceSearchService;
+import io.micrometer.core.instrument.Timer;
+import javafx.animation.PauseTransition;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
+import javafx.scene.Scene;
+import javafx.scene.control.*;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * SALES HISTORY: Loads invoice summaries page by page as the table scrolls.
+ * Full invoices (with items) are only loaded when a row is opened.
+ * The search box runs a debounced type-ahead query in the background.
+ */
+@Slf4j
+class SalesHistoryWindow {
+
+    private static final int PAGE_SIZE = 100;
+    private static final int PREFETCH_ROWS = 20; // Start loading when this close to the end
+    private static final Duration SEARCH_DELAY = Duration.millis(250);
+
+    private final InvoiceRepository invoiceRepository;
+    private final InvoiceSearchService searchService;
+    private final Executor executor;
+    private final Timer pageTimer;
+    private final Consumer<InvoiceSummary> onOpen;
+
+    private final ObservableList<InvoiceSummary> historyData = FXCollections.observableArrayList();
+    private boolean loading;
+    private boolean exhausted;
+    private int searchGeneration; // Bumped on each keystroke so stale results are dropped
+
+    SalesHistoryWindow(InvoiceRepository invoiceRepository, InvoiceSearchService searchService,
+                       Executor executor, Timer pageTimer, Consumer<InvoiceSummary> onOpen) {
+        this.invoiceRepository = invoiceRepository;
+        this.searchService = searchService;
+        this.executor = executor;
+        this.pageTimer = pageTimer;
+        this.onOpen = onOpen;
+    }
+
+    void show() {
+        Stage historyStage = new Stage();
+        historyStage.setTitle("Sales History");
+
+        TableView<InvoiceSummary> historyTable = new TableView<>();
+
+        TableColumn<InvoiceSummary, String> dateCol = new TableColumn<>("Date");
+        dateCol.setCellValueFactory(cell -> new SimpleStringProperty(String.valueOf(cell.getValue().date())));
+
+        TableColumn<InvoiceSummary, String> invCol = new TableColumn<>("Invoice No");
+        invCol.setCellValueFactory(cell -> new SimpleStringProperty(cell.getValue().invoiceNumber()));
+
+        TableColumn<InvoiceSummary, String> custCol = new TableColumn<>("Customer");
+        custCol.setCellValueFactory(cell -> new SimpleStringProperty(cell.getValue().customerName()));
+
+        TableColumn<InvoiceSummary, String> totalCol = new TableColumn<>("Total ($)");
+        totalCol.setCellValueFactory(cell -> new SimpleStringProperty(String.valueOf(cell.getValue().grandTotal())));
+
+        historyTable.getColumns().addAll(dateCol, invCol, custCol, totalCol);
+        historyTable.setItems(historyData);
+        historyTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+
+        historyTable.setRowFactory(tv -> {
+            TableRow<InvoiceSummary> row = new TableRow<>() {
+                @Override
+                protected void updateItem(InvoiceSummary item, boolean empty) {
+                    super.updateItem(item, empty);
+                    // Rows are virtualized: only visible rows get here, so this fires as the user scrolls down
+                    if (!empty && getIndex() >= historyData.size() - PREFETCH_ROWS) loadNextPage();
+                }
+            };
+            row.setOnMouseClicked(event -> {
+                if (event.getClickCount() == 2 && (! row.isEmpty()) ) {
+                    onOpen.accept(row.getItem());
+                }
+            });
+            return row;
+        });
+
+        TextField searchField = new TextField();
+        searchField.setPromptText("Search name, phone or invoice no...");
+        PauseTransition debounce = new PauseTransition(SEARCH_DELAY);
+        debounce.setOnFinished(e -> runSearch(searchField.getText()));
+        searchField.textProperty().addListener((obs, old, nev) -> {
+            searchGeneration++;
+            exhausted = true; // No paging while the user is typing
+            debounce.playFromStart();
+        });
+
+        VBox layout = new VBox(5, searchField, new Label("Double-click a row to open PDF"), historyTable);
+        VBox.setVgrow(historyTable, Priority.ALWAYS);
+        historyStage.setScene(new Scene(layout, 600, 400));
+        historyStage.show();
+
+        loadNextPage();
+    }
+
+    private void loadNextPage() {
+        if (loading || exhausted) return;
+        loading = true;
+
+        // Keyset: continue after the last row we already have (newest first)
+        InvoiceSummary last = historyData.isEmpty() ? null : historyData.get(historyData.size() - 1);
+        PageRequest page = PageRequest.of(0, PAGE_SIZE);
+
+        Task<List<InvoiceSummary>> task = new Task<>() {
+            @Override
+            protected List<InvoiceSummary> call() {
+                return pageTimer.record(() -> last == null
+                        ? invoiceRepository.findLatestSummaries(page)
+                        : invoiceRepository.findSummariesBefore(last.date(), last.id(), page));
+            }
+        };
+        int generation = searchGeneration;
+        task.setOnSucceeded(e -> {
+            if (generation != searchGeneration) { loading = false; return; } // A search replaced the list meanwhile
+            List<InvoiceSummary> rows = task.getValue();
+            exhausted = rows.size() < PAGE_SIZE;
+            loading = false;
+            historyData.addAll(rows);
+        });
+        task.setOnFailed(e -> {
+            // Stop paging; reopening the window will try again
+            log.error("Could not load sales history", task.getException());
+            exhausted = true;
+            loading = false;
+        });
+        executor.execute(task);
+    }
+
+    private void runSearch(String query) {
+        int generation = searchGeneration;
+
+        // Empty box: back to normal paged history
+        if (query == null || query.isBlank()) {
+            historyData.clear();
+            exhausted = false;
+            loading = false;
+            loadNextPage();
+            return;
+        }
+
+        Task<List<InvoiceSummary>> task = new Task<>() {
+            @Override
+            protected List<InvoiceSummary> call() {
+                return searchService.search(query);
+            }
+        };
+        task.setOnSucceeded(e -> {
+            if (generation != searchGeneration) return; // User kept typing
+            exhausted = true; // Search results are not paged
+            historyData.setAll(task.getValue());
+        });
+        task.setOnFailed(e -> log.error("Search failed for '{}'", query, task.getException()));
+        executor.execute(task);
+    }
+}
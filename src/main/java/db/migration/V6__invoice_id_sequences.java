@@ -0,0 +1,43 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Sequences for Invoice / InvoiceItem ids (replacing IDENTITY so inserts can be batched).
+ *
+ * Written in Java because each sequence has to start after the ids already in the table,
+ * which plain H2 SQL can't do. Hibernate's pooled optimizer hands out (value - 49 .. value),
+ * so the sequence starts at max(id) + 50.
+ */
+public class V6__invoice_id_sequences extends BaseJavaMigration {
+
+    private static final int ALLOCATION_SIZE = 50; // Must match @SequenceGenerator.allocationSize
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        try (Statement st = context.getConnection().createStatement()) {
+            createSequenceAfter(st, "invoice", "invoice_seq");
+            createSequenceAfter(st, "invoice_item", "invoice_item_seq");
+
+            // Items are now inserted with their invoice_id (see Invoice.items).
+            // Rows without one were detached from their invoice and can't be reached any more.
+            st.executeUpdate("DELETE FROM invoice_item WHERE invoice_id IS NULL");
+            st.execute("ALTER TABLE invoice_item ALTER COLUMN invoice_id SET NOT NULL");
+        }
+    }
+
+    private void createSequenceAfter(Statement st, String table, String sequence) throws SQLException {
+        long maxId;
+        try (ResultSet rs = st.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            rs.next();
+            maxId = rs.getLong(1);
+        }
+        st.execute("CREATE SEQUENCE " + sequence + " START WITH " + (maxId + ALLOCATION_SIZE)
+                + " INCREMENT BY " + ALLOCATION_SIZE);
+    }
+}
@@ -0,0 +1,9 @@
+-- Each line keeps the rate it was priced at (purities beyond 22K/24K have no column on invoice).
+-- Existing lines: the invoice's rate for their purity.
+
+ALTER TABLE invoice_item ADD COLUMN rate_per_unit BIGINT DEFAULT 0 NOT NULL;
+
+UPDATE invoice_item it SET rate_per_unit = COALESCE((
+    SELECT CASE WHEN it.purity = '24K' THEN i.rate24k ELSE i.rate22k END
+    FROM invoice i WHERE i.id = it.invoice_id
+), 0);
@@ -0,0 +1,5 @@
+-- Item category (picks the making charge, see PricingRules) and the making charge it came to.
+-- Existing lines: no category, no making charge - their totals stay as printed.
+
+ALTER TABLE invoice_item ADD COLUMN category VARCHAR(255);
+ALTER TABLE invoice_item ADD COLUMN making_charge BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,8 @@
+-- One rate per purity and time: two tills (or two imports) could record the same pair.
+-- Keep the last one saved, as an import of that pair would have.
+
+DELETE FROM gold_rate g
+WHERE id <> (SELECT MAX(d.id) FROM gold_rate d WHERE d.purity = g.purity AND d.effective_from = g.effective_from);
+
+DROP INDEX IF EXISTS idx_gold_rate_purity_time;
+CREATE UNIQUE INDEX IF NOT EXISTS uk_gold_rate_purity_time ON gold_rate (purity, effective_from);
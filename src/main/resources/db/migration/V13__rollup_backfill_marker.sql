@@ -0,0 +1,7 @@
+-- Written when the sales rollups have been built from every existing invoice (ReportService.ensureBackfilled).
+-- No row: the rollups are incomplete (never built, or a rebuild was cut short) - the main till rebuilds them.
+
+CREATE TABLE rollup_backfill (
+    id           INT PRIMARY KEY,
+    completed_at TIMESTAMP NOT NULL
+);
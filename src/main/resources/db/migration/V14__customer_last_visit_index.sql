@@ -0,0 +1,3 @@
+-- Other tills' customers are picked up by last visit (CustomerService poll)
+
+CREATE INDEX IF NOT EXISTS idx_customer_last_visit ON customer (last_visit);
@@ -0,0 +1,38 @@
+-- Schema as it was created by Hibernate (ddl-auto=update) in the first release.
+-- Existing databases are baselined at this version, so this only runs on a brand new database.
+
+CREATE TABLE IF NOT EXISTS invoice (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    invoice_number   VARCHAR(255),
+    date             DATE,
+    customer_name    VARCHAR(255),
+    customer_phone   VARCHAR(255),
+    customer_address VARCHAR(255),
+    rate22k          FLOAT(53) NOT NULL,
+    rate24k          FLOAT(53) NOT NULL,
+    sub_total        FLOAT(53) NOT NULL,
+    old_gold_amount  FLOAT(53) NOT NULL,
+    gst_percent      FLOAT(53) NOT NULL,
+    discount_amount  FLOAT(53) NOT NULL,
+    grand_total      FLOAT(53) NOT NULL,
+    advance_payment  FLOAT(53) NOT NULL,
+    balance_due      FLOAT(53) NOT NULL,
+    sold_by          VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS invoice_item (
+    id                   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    description          VARCHAR(255),
+    purity               VARCHAR(255),
+    weight_unit          VARCHAR(255),
+    net_weight_lal       FLOAT(53) NOT NULL,
+    wastage_lal          FLOAT(53) NOT NULL,
+    wages                FLOAT(53) NOT NULL,
+    stone_cost           FLOAT(53) NOT NULL,
+    total_weight_lal     FLOAT(53) NOT NULL,
+    total_weight_tola    FLOAT(53) NOT NULL,
+    display_total_weight FLOAT(53) NOT NULL,
+    line_total           FLOAT(53) NOT NULL,
+    invoice_id           BIGINT,
+    CONSTRAINT fk_invoice_item_invoice FOREIGN KEY (invoice_id) REFERENCES invoice (id)
+);
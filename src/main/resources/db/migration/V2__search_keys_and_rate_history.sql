@@ -0,0 +1,17 @@
+-- Search keys (InvoiceSearchService) and gold rate history (SettingsService).
+-- IF NOT EXISTS: databases that ran with ddl-auto=update may already have these.
+
+ALTER TABLE invoice ADD COLUMN IF NOT EXISTS customer_search_key VARCHAR(255);
+ALTER TABLE invoice ADD COLUMN IF NOT EXISTS phone_digits VARCHAR(255);
+
+UPDATE invoice
+SET customer_search_key = LOWER(TRIM(customer_name)),
+    phone_digits        = REGEXP_REPLACE(customer_phone, '[^0-9]', '')
+WHERE customer_search_key IS NULL;
+
+CREATE TABLE IF NOT EXISTS gold_rate (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    purity         VARCHAR(255),
+    rate_per_unit  FLOAT(53) NOT NULL,
+    effective_from TIMESTAMP(6)
+);
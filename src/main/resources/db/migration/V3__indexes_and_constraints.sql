@@ -0,0 +1,21 @@
+-- Indexes for history paging, search and item loading, plus a unique invoice number.
+
+-- Invoices saved in the same millisecond could share a number; keep the first, suffix the rest with their id
+UPDATE invoice i
+SET invoice_number = invoice_number || '-' || id
+WHERE id <> (SELECT MIN(d.id) FROM invoice d WHERE d.invoice_number = i.invoice_number);
+
+UPDATE invoice SET invoice_number = 'GJ-' || id WHERE invoice_number IS NULL;
+ALTER TABLE invoice ALTER COLUMN invoice_number SET NOT NULL;
+
+DROP INDEX IF EXISTS idx_invoice_number;
+CREATE UNIQUE INDEX IF NOT EXISTS uk_invoice_number ON invoice (invoice_number);
+
+CREATE INDEX IF NOT EXISTS idx_invoice_date ON invoice (date, id);
+CREATE INDEX IF NOT EXISTS idx_invoice_customer_key ON invoice (customer_search_key);
+CREATE INDEX IF NOT EXISTS idx_invoice_phone_digits ON invoice (phone_digits);
+
+-- H2 indexes the FK column automatically only when the constraint exists; make it explicit
+CREATE INDEX IF NOT EXISTS idx_invoice_item_invoice ON invoice_item (invoice_id);
+
+CREATE INDEX IF NOT EXISTS idx_gold_rate_purity_time ON gold_rate (purity, effective_from);
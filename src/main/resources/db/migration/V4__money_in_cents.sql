@@ -0,0 +1,37 @@
+-- Amounts move from FLOAT (dollars) to BIGINT (cents) - see Money / MoneyConverter.
+-- Round first so the type change itself is exact.
+
+UPDATE invoice SET
+    rate22k         = ROUND(rate22k * 100),
+    rate24k         = ROUND(rate24k * 100),
+    sub_total       = ROUND(sub_total * 100),
+    old_gold_amount = ROUND(old_gold_amount * 100),
+    discount_amount = ROUND(discount_amount * 100),
+    grand_total     = ROUND(grand_total * 100),
+    advance_payment = ROUND(advance_payment * 100),
+    balance_due     = ROUND(balance_due * 100);
+
+ALTER TABLE invoice ALTER COLUMN rate22k SET DATA TYPE BIGINT;
+ALTER TABLE invoice ALTER COLUMN rate24k SET DATA TYPE BIGINT;
+ALTER TABLE invoice ALTER COLUMN sub_total SET DATA TYPE BIGINT;
+ALTER TABLE invoice ALTER COLUMN old_gold_amount SET DATA TYPE BIGINT;
+ALTER TABLE invoice ALTER COLUMN discount_amount SET DATA TYPE BIGINT;
+ALTER TABLE invoice ALTER COLUMN grand_total SET DATA TYPE BIGINT;
+ALTER TABLE invoice ALTER COLUMN advance_payment SET DATA TYPE BIGINT;
+ALTER TABLE invoice ALTER COLUMN balance_due SET DATA TYPE BIGINT;
+
+-- GST amount is now stored (it was only computed when printing)
+ALTER TABLE invoice ADD COLUMN gst_amount BIGINT;
+UPDATE invoice SET gst_amount = ROUND((sub_total - old_gold_amount) * gst_percent / 100);
+
+UPDATE invoice_item SET
+    wages      = ROUND(wages * 100),
+    stone_cost = ROUND(stone_cost * 100),
+    line_total = ROUND(line_total * 100);
+
+ALTER TABLE invoice_item ALTER COLUMN wages SET DATA TYPE BIGINT;
+ALTER TABLE invoice_item ALTER COLUMN stone_cost SET DATA TYPE BIGINT;
+ALTER TABLE invoice_item ALTER COLUMN line_total SET DATA TYPE BIGINT;
+
+UPDATE gold_rate SET rate_per_unit = ROUND(rate_per_unit * 100);
+ALTER TABLE gold_rate ALTER COLUMN rate_per_unit SET DATA TYPE BIGINT;
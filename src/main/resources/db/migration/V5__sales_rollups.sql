@@ -0,0 +1,29 @@
+-- Per-day rollups for reporting (ReportService). Amounts in cents.
+
+CREATE TABLE daily_sales (
+    date              DATE PRIMARY KEY,
+    invoice_count     BIGINT NOT NULL,
+    sub_total_cents   BIGINT NOT NULL,
+    old_gold_cents    BIGINT NOT NULL,
+    discount_cents    BIGINT NOT NULL,
+    gst_cents         BIGINT NOT NULL,
+    grand_total_cents BIGINT NOT NULL
+);
+
+CREATE TABLE daily_purity_sales (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    date         DATE,
+    purity       VARCHAR(255),
+    weight_lal   FLOAT(53) NOT NULL,
+    amount_cents BIGINT NOT NULL,
+    CONSTRAINT uk_daily_purity_sales UNIQUE (date, purity)
+);
+
+CREATE TABLE daily_staff_sales (
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    date              DATE,
+    sold_by           VARCHAR(255),
+    invoice_count     BIGINT NOT NULL,
+    grand_total_cents BIGINT NOT NULL,
+    CONSTRAINT uk_daily_staff_sales UNIQUE (date, sold_by)
+);
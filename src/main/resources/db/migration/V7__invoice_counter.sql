@@ -0,0 +1,7 @@
+-- Per-financial-year invoice numbering (InvoiceNumberService).
+-- Invoices saved before this keep their old "GJ-<millis>" numbers; new ones start at 1 for the current year.
+
+CREATE TABLE invoice_counter (
+    financial_year VARCHAR(16) PRIMARY KEY,
+    next_number    BIGINT NOT NULL
+);
@@ -0,0 +1,6 @@
+-- @Version columns for optimistic locking between tills (see InvoiceService.save)
+
+ALTER TABLE invoice ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE daily_sales ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE daily_purity_sales ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE daily_staff_sales ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
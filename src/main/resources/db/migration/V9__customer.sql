@@ -0,0 +1,17 @@
+-- Customer master keyed by normalized phone (CustomerService).
+-- Filled from existing invoices: the most recent invoice for each phone number wins.
+
+CREATE TABLE customer (
+    phone_digits VARCHAR(255) PRIMARY KEY,
+    version      BIGINT DEFAULT 0 NOT NULL,
+    name         VARCHAR(255),
+    phone        VARCHAR(255),
+    address      VARCHAR(255),
+    last_visit   DATE
+);
+
+INSERT INTO customer (phone_digits, version, name, phone, address, last_visit)
+SELECT i.phone_digits, 0, i.customer_name, i.customer_phone, i.customer_address, i.date
+FROM invoice i
+WHERE i.phone_digits <> ''
+  AND i.id = (SELECT MAX(j.id) FROM invoice j WHERE j.phone_digits = i.phone_digits);
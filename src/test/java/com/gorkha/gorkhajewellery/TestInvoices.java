@@ -0,0 +1,42 @@
+package com.gorkha.gorkhajewellery;
+
+import com.gorkha.gorkhajewellery.model.Invoice;
+import com.gorkha.gorkhajewellery.model.InvoiceItem;
+import com.gorkha.gorkhajewellery.model.Money;
+import com.gorkha.gorkhajewellery.pricing.PricingRules;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Unsaved invoices for the tests, priced the way the invoice screen prices them.
+ */
+public final class TestInvoices {
+
+    public static final Money RATE = Money.parse("1340.00");
+
+    private static final PricingRules RULES = PricingRules.compile(List.of("22K", "24K"), "", "");
+
+    private TestInvoices() {}
+
+    /** No number (InvoiceService.save assigns one), dated today, with {@code lines} 22K rings. */
+    public static Invoice invoice(String customerName, String phone, int lines) {
+        Invoice invoice = new Invoice();
+        invoice.setDate(LocalDate.now());
+        invoice.setCustomerName(customerName);
+        invoice.setCustomerPhone(phone);
+        invoice.setSoldBy("Counter 1");
+        invoice.setRate22k(RATE);
+        for (int i = 0; i < lines; i++) {
+            InvoiceItem item = new InvoiceItem();
+            item.setDescription("Ring " + (i + 1));
+            item.setPurity("22K");
+            item.setNetWeightLal(50 + i);
+            item.setWages(Money.parse("100.00"));
+            item.calculateLineTotal(RULES.pricer("22K", null), RATE);
+            invoice.addItem(item);
+        }
+        invoice.calculateTotals();
+        return invoice;
+    }
+}
@@ -0,0 +1,154 @@
+package com.gorkha.gorkhajewellery.repository;
+
+import com.gorkha.gorkhajewellery.TestInvoices;
+import com.gorkha.gorkhajewellery.model.Invoice;
+import com.gorkha.gorkhajewellery.model.InvoiceItem;
+import com.gorkha.gorkhajewellery.model.InvoiceSummary;
+import com.gorkha.gorkhajewellery.service.InvoiceSearchService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Statements per screen action, counted by Hibernate statistics: lists never touch line items,
+ * the PDF / reprint path loads an invoice with its items in one query - however many invoices or items -
+ * and saving sends the item INSERTs as one batch.
+ */
+@DataJpaTest
+@Import({InvoiceSearchService.class, InvoiceStatementCountTest.Metrics.class})
+class InvoiceStatementCountTest {
+
+    private static final int INVOICES = 30;
+    private static final int LINES = 4;
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired private InvoiceRepository invoiceRepository;
+    @Autowired private InvoiceSearchService searchService;
+    @Autowired private TestEntityManager entityManager;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        for (int i = 0; i < INVOICES; i++) {
+            Invoice invoice = TestInvoices.invoice("Sita Gurung " + i, "9841" + (100_000 + i), LINES);
+            invoice.setInvoiceNumber(String.format("GJ-TEST-%05d", i));
+            ids.add(invoiceRepository.save(invoice).getId());
+        }
+        entityManager.flush();
+        entityManager.clear(); // Everything below comes from the database, not the persistence context
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    // --- List paths ---
+
+    @Test
+    void historyPageIsOneStatement() {
+        List<InvoiceSummary> page = invoiceRepository.findLatestSummaries(PageRequest.of(0, 10));
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        InvoiceSummary last = page.get(page.size() - 1);
+        invoiceRepository.findSummariesBefore(last.date(), last.id(), PageRequest.of(0, 10));
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void searchIsOneStatementPerField() {
+        List<InvoiceSummary> byName = searchService.search("sita");
+        assertEquals(INVOICES, byName.size());
+        assertEquals(2, statistics.getPrepareStatementCount()); // Name, invoice number (no digits typed)
+
+        statistics.clear();
+        searchService.search("9841");
+        assertEquals(3, statistics.getPrepareStatementCount()); // Name, phone, invoice number
+    }
+
+    @Test
+    void listsDoNotLoadItems() {
+        invoiceRepository.findLatestSummaries(PageRequest.of(0, INVOICES));
+        searchService.search("sita");
+
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getCollectionLoadCount());
+    }
+
+    // --- PDF / reprint paths ---
+
+    @Test
+    void reprintLoadsInvoiceAndItemsInOneStatement() {
+        Invoice invoice = invoiceRepository.findWithItemsById(ids.get(0)).orElseThrow();
+        touchItems(invoice);
+
+        assertEquals(LINES, invoice.getItems().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void batchExportLoadsAChunkInOneStatement() {
+        List<Invoice> invoices = invoiceRepository.findAllWithItemsByIdIn(ids);
+        invoices.forEach(this::touchItems);
+
+        assertEquals(INVOICES, invoices.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void lazyItemsLoadInBatches() {
+        List<Invoice> invoices = invoiceRepository.findAllById(ids);
+        invoices.forEach(this::touchItems);
+
+        // One for the invoices, one for the items of up to 50 of them (@BatchSize) - not one per invoice
+        assertTrue(statistics.getPrepareStatementCount() <= 2,
+                "Expected at most 2 statements, got " + statistics.getPrepareStatementCount());
+    }
+
+    // --- Save path ---
+
+    @Test
+    void saveBatchesTheItemInserts() {
+        int lines = 40;
+        Invoice invoice = TestInvoices.invoice("Ram Thapa", "9841999999", lines);
+        invoice.setInvoiceNumber("GJ-TEST-SAVE");
+        invoiceRepository.save(invoice);
+        entityManager.flush();
+
+        assertEquals(1 + lines, statistics.getEntityInsertCount());
+        // Invoice INSERT + one batch for all item INSERTs (+ at most a sequence call each for the next id block);
+        // without batching (or with IDENTITY ids) it would be one statement per item
+        assertTrue(statistics.getPrepareStatementCount() <= 4,
+                "Expected at most 4 statements for a " + lines + "-line save, got " + statistics.getPrepareStatementCount());
+    }
+
+    private void touchItems(Invoice invoice) {
+        for (InvoiceItem item : invoice.getItems()) item.getLineTotal();
+    }
+}
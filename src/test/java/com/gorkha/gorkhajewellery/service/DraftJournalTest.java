@@ -0,0 +1,127 @@
+package com.gorkha.gorkhajewellery.service;
+
+import com.gorkha.gorkhajewellery.model.InvoiceDraft;
+import com.gorkha.gorkhajewellery.model.Money;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Each test writes through one DraftJournal, shuts it down (its writes are on disk, as after a crash
+ * once the writer has synced) and recovers with a new one - the next start.
+ */
+class DraftJournalTest {
+
+    @TempDir Path dataDir;
+
+    @Test
+    void draftComesBackAsItWasTyped() throws Exception {
+        DraftJournal journal = open();
+        InvoiceDraft draft = draft(journal.newDraftId(), "Sita Gurung");
+        journal.write(draft);
+        journal.shutdown();
+
+        assertEquals(Optional.of(draft), recover());
+    }
+
+    @Test
+    void tornLastRecordIsCutOff() throws Exception {
+        DraftJournal journal = open();
+        InvoiceDraft draft = draft(journal.newDraftId(), "Sita Gurung");
+        journal.write(draft);
+        journal.shutdown();
+
+        Path file = dataDir.resolve("drafts").resolve("draft.journal");
+        long complete = Files.size(file);
+        ByteBuffer torn = ByteBuffer.allocate(8 + 10).putInt(200).putInt(12345); // Header of a 200-byte record, 10 bytes of it
+        Files.write(file, torn.array(), StandardOpenOption.APPEND);
+
+        assertEquals(Optional.of(draft), recover());
+        assertEquals(complete, Files.size(file));
+    }
+
+    @Test
+    void savedDraftIsNotRecovered() throws Exception {
+        DraftJournal journal = open();
+        long id = journal.newDraftId();
+        journal.write(draft(id, "Sita Gurung"));
+        journal.markSaved(id);
+        journal.shutdown();
+
+        assertEquals(Optional.empty(), recover());
+    }
+
+    @Test
+    void discardedDraftIsNotRecovered() throws Exception {
+        DraftJournal journal = open();
+        long id = journal.newDraftId();
+        journal.write(draft(id, "Sita Gurung"));
+        journal.markDiscarded(id);
+        journal.shutdown();
+
+        assertEquals(Optional.empty(), recover());
+    }
+
+    @Test
+    void savingOneInvoiceKeepsTheNextOneTypedMeanwhile() throws Exception {
+        DraftJournal journal = open();
+        InvoiceDraft a = draft(journal.newDraftId(), "Sita Gurung");
+        InvoiceDraft b = draft(journal.newDraftId(), "Ram Thapa");
+        journal.write(a);
+        journal.write(b);         // New Invoice while A was still saving...
+        journal.markSaved(a.id()); // ...then A's save committed
+        journal.shutdown();
+
+        assertEquals(Optional.of(b), recover());
+    }
+
+    @Test
+    void unreadableJournalIsMovedAsideAndANewOneStarted() throws Exception {
+        Path drafts = Files.createDirectories(dataDir.resolve("drafts"));
+        Files.createDirectory(drafts.resolve("draft.journal")); // Cannot be opened as a file
+
+        DraftJournal journal = new DraftJournal(dataDir.toString());
+        try {
+            assertTrue(journal.recover().isEmpty());
+            assertTrue(Files.isRegularFile(drafts.resolve("draft.journal")), "No new journal was started");
+            try (Stream<Path> files = Files.list(drafts)) {
+                assertEquals(1, files.filter(f -> f.getFileName().toString().startsWith("draft.journal.unreadable-")).count());
+            }
+        } finally {
+            journal.shutdown();
+        }
+    }
+
+    private DraftJournal open() throws Exception {
+        DraftJournal journal = new DraftJournal(dataDir.toString());
+        assertTrue(journal.recover().isEmpty());
+        return journal;
+    }
+
+    private Optional<InvoiceDraft> recover() throws Exception {
+        DraftJournal journal = new DraftJournal(dataDir.toString());
+        try {
+            return journal.recover();
+        } finally {
+            journal.shutdown();
+        }
+    }
+
+    private static InvoiceDraft draft(long id, String customer) {
+        List<InvoiceDraft.Line> lines = List.of(
+                new InvoiceDraft.Line("Ring", "Ring", "22K", "Lal", 12.5, 1.0, Money.parse("500.00"), Money.ZERO),
+                new InvoiceDraft.Line("Chain", null, "24K", "Tola", 1.25, 0.5, Money.ZERO, Money.parse("75.50")));
+        return new InvoiceDraft(id, LocalDateTime.now(), customer, "9800000000", null, "Hari",
+                "0", "100", "13", "2000", lines);
+    }
+}
@@ -0,0 +1,73 @@
+package com.gorkha.gorkhajewellery.service;
+
+import com.gorkha.gorkhajewellery.TestInvoices;
+import com.gorkha.gorkhajewellery.model.Invoice;
+import com.gorkha.gorkhajewellery.repository.InvoiceRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Several counters pressing Save at the same moment: every invoice gets its own number,
+ * the numbers have no gaps, and what is in the database is what each save returned.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:numbering;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000")
+class InvoiceNumberConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int SAVES_PER_THREAD = 25;
+
+    @Autowired private InvoiceService invoiceService;
+    @Autowired private InvoiceRepository invoiceRepository;
+
+    @Test
+    void concurrentSavesGetUniqueGaplessNumbers() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Map<Long, String>>> results = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int till = t;
+            results.add(pool.submit(() -> {
+                start.await(); // All threads hit the counter row together
+                Map<Long, String> saved = new HashMap<>();
+                for (int i = 0; i < SAVES_PER_THREAD; i++) {
+                    Invoice invoice = invoiceService.save(TestInvoices.invoice("Till " + till + " customer " + i, "0400000000", 2));
+                    saved.put(invoice.getId(), invoice.getInvoiceNumber());
+                }
+                return saved;
+            }));
+        }
+        start.countDown();
+
+        Map<Long, String> returned = new HashMap<>();
+        for (Future<Map<Long, String>> result : results) returned.putAll(result.get(2, TimeUnit.MINUTES));
+        pool.shutdown();
+
+        int total = THREADS * SAVES_PER_THREAD;
+        assertEquals(total, returned.size(), "Every save returned its own invoice");
+        assertEquals(total, new HashSet<>(returned.values()).size(), "Duplicate invoice numbers: " + duplicates(returned.values()));
+
+        // 00001 .. 00200 - no number skipped
+        List<Integer> sequence = returned.values().stream()
+                .map(number -> Integer.parseInt(number.substring(number.lastIndexOf('-') + 1)))
+                .sorted()
+                .toList();
+        for (int i = 0; i < total; i++) assertEquals(i + 1, sequence.get(i), "Gap in the invoice numbers");
+
+        // Not clobbered: each row still has the number its save handed out
+        for (Invoice stored : invoiceRepository.findAllById(returned.keySet())) {
+            assertEquals(returned.get(stored.getId()), stored.getInvoiceNumber());
+        }
+    }
+
+    private static Set<String> duplicates(Collection<String> numbers) {
+        Set<String> seen = new HashSet<>(), duplicates = new TreeSet<>();
+        for (String number : numbers) if (!seen.add(number)) duplicates.add(number);
+        return duplicates;
+    }
+}
@@ -0,0 +1,138 @@
+package com.gorkha.gorkhajewellery.service;
+
+import com.gorkha.gorkhajewellery.GorkhaJewelleryApplication;
+import com.gorkha.gorkhajewellery.TestInvoices;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.ServerSocket;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * A busy shop: the main till (profile "server") and two other tills (profile "client", over H2 TCP)
+ * all saving at once, two counters per till. Each till is its own Spring context, as in the shop.
+ *
+ * Reports the save latency (p50/p99) and the conflicts: retried saves (gj.invoice.save.retries)
+ * and saves that still failed after retrying. Fails on a failed save or a duplicate number.
+ */
+@Slf4j
+class MultiTillLoadTest {
+
+    private static final int CLIENT_TILLS = 2;
+    private static final int THREADS_PER_TILL = 2;
+    private static final int SAVES_PER_THREAD = 30;
+
+    @TempDir Path dataDir;
+
+    private final List<ConfigurableApplicationContext> tills = new ArrayList<>();
+    private int port;
+
+    @AfterEach
+    void closeTills() {
+        Collections.reverse(tills); // Clients before the server
+        tills.forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Test
+    void tillsSavingTogether() throws Exception {
+        port = freePort();
+
+        // 1. Main till opens (and migrates) the database file, then shares it
+        ConfigurableApplicationContext server = start("server",
+                "--spring.datasource.url=jdbc:h2:file:" + dataDir.resolve("gorkha_db").toAbsolutePath());
+        server.getBean(EntityManagerFactory.class);
+        server.getBean(ReportService.class).backfillIfNeeded(); // As its warm-up does - other tills only save after that
+
+        // 2. The other tills connect to it
+        for (int i = 0; i < CLIENT_TILLS; i++) {
+            start("client", "--spring.datasource.url=jdbc:h2:tcp://localhost:" + port + "/gorkha_db");
+        }
+
+        // 3. Everybody saves at once
+        ExecutorService pool = Executors.newFixedThreadPool(tills.size() * THREADS_PER_TILL);
+        CountDownLatch go = new CountDownLatch(1);
+        Queue<Long> latencies = new ConcurrentLinkedQueue<>();
+        Queue<String> numbers = new ConcurrentLinkedQueue<>();
+        AtomicInteger failed = new AtomicInteger();
+        List<Future<?>> counters = new ArrayList<>();
+        for (int t = 0; t < tills.size(); t++) {
+            InvoiceService invoiceService = tills.get(t).getBean(InvoiceService.class);
+            for (int c = 0; c < THREADS_PER_TILL; c++) {
+                String counter = "Till " + t + " counter " + c;
+                counters.add(pool.submit(() -> {
+                    go.await();
+                    for (int i = 0; i < SAVES_PER_THREAD; i++) {
+                        long start = System.nanoTime();
+                        try {
+                            numbers.add(invoiceService.save(TestInvoices.invoice(counter + " customer " + i, "0400000000", 3)).getInvoiceNumber());
+                        } catch (RuntimeException e) {
+                            failed.incrementAndGet();
+                            log.warn("{}: save failed", counter, e);
+                        }
+                        latencies.add(System.nanoTime() - start);
+                    }
+                    return null;
+                }));
+            }
+        }
+        long started = System.nanoTime();
+        go.countDown();
+        for (Future<?> counter : counters) counter.get(5, TimeUnit.MINUTES);
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        pool.shutdown();
+
+        // 4. Report
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        double retries = tills.stream().mapToDouble(till -> till.getBean(MeterRegistry.class).counter("gj.invoice.save.retries").count()).sum();
+        log.info("{} tills x {} counters: {} saves in {} ms ({} saves/s) - p50 {} ms, p99 {} ms, max {} ms - {} retried, {} failed",
+                tills.size(), THREADS_PER_TILL, sorted.length, elapsedMs, sorted.length * 1000L / Math.max(1, elapsedMs),
+                millis(percentile(sorted, 0.50)), millis(percentile(sorted, 0.99)), millis(sorted[sorted.length - 1]),
+                (long) retries, failed.get());
+
+        int total = tills.size() * THREADS_PER_TILL * SAVES_PER_THREAD;
+        assertEquals(0, failed.get(), "Saves failed after retrying");
+        assertEquals(total, numbers.size());
+        assertEquals(total, new HashSet<>(numbers).size(), "Duplicate invoice numbers across tills");
+    }
+
+    private ConfigurableApplicationContext start(String profile, String... args) {
+        String[] all = new String[args.length + 3];
+        all[0] = "--app.db.dir=" + dataDir.toAbsolutePath();
+        all[1] = "--app.db.port=" + port;
+        all[2] = "--spring.datasource.password=load-test"; // The server profile refuses the default one
+        System.arraycopy(args, 0, all, 3, args.length);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(GorkhaJewelleryApplication.class)
+                .profiles(profile)
+                .web(WebApplicationType.NONE)
+                .headless(true)
+                .run(all); // Command-line arguments win over every properties file
+        tills.add(context);
+        return context;
+    }
+
+    private static int freePort() throws Exception {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[Math.max(0, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
@@ -0,0 +1,28 @@
+package com.gorkha.gorkhajewellery.ui;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.annotation.DirtiesContext;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * The main window is built on the FX thread right after the splash (FXMLLoader -> context::getBean).
+ * Building its controller must not start Flyway/Hibernate - that is the background warm-up's job.
+ */
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_CLASS) // Fresh context - not one another test already used
+class InvoiceControllerStartupTest {
+
+    @Autowired private ConfigurableApplicationContext context;
+
+    @Test
+    void buildingTheControllerDoesNotStartHibernate() {
+        context.getBean(InvoiceController.class); // What the FXML controller factory does
+
+        assertFalse(context.getBeanFactory().containsSingleton("entityManagerFactory"),
+                "Creating InvoiceController started the EntityManagerFactory");
+    }
+}